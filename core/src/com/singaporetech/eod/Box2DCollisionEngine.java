@@ -0,0 +1,318 @@
+package com.singaporetech.eod;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.QueryCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.singaporetech.eod.components.collision.Collidable;
+import com.singaporetech.eod.components.collision.Collider;
+import com.singaporetech.eod.components.collision.CollisionLayer;
+
+/**
+ * Same queries as the CollisionEngine but backed by a Box2D World, pick it with SETTINGS.COLLISION_BACKEND.
+ * - every collidable is a body with a sensor "hull" circle, positions are still driven by the Transforms
+ * - movers also get a sensor circle covering their fan, its contacts are the fan's candidates
+ *   and the exact fan test still runs on those
+ * - bodies that stop moving are left alone so Box2D can put them to sleep
+ * - contacts are only updated in tick(), so fan candidates lag one frame behind
+ */
+public class Box2DCollisionEngine extends CollisionEngine {
+    private static final String TAG = "Box2DCollisionEngine";
+
+    // fan sensors sit on their own filter bit so hulls only ever pair with fans
+    private static final short FAN_BIT = (short) (1 << 15);
+
+    /**
+     * Box2D side of one collidable.
+     */
+    private static class Proxy {
+        final Collidable collidable;
+        final Body body;
+        final Fixture hull;
+        Fixture fan;
+        float fanRadius;
+
+        // hulls currently touching this proxy's fan
+        final Array<Collidable> touching = new Array<Collidable>(false, 8);
+
+        Proxy(Collidable collidable, Body body, Fixture hull) {
+            this.collidable = collidable;
+            this.body = body;
+            this.hull = hull;
+        }
+    }
+
+    private World world;
+    private IdentityMap<Collidable, Proxy> proxies = new IdentityMap<Collidable, Proxy>();
+    private BodyDef bodyDef = new BodyDef();
+    private FixtureDef fixtureDef = new FixtureDef();
+    private Vector2 bodyPos = new Vector2();
+
+    // box query state, fields so QueryAABB doesn't need a new callback every call
+    private int queryMask;
+    private final QueryCallback queryCallback = new QueryCallback() {
+        @Override
+        public boolean reportFixture(Fixture fixture) {
+            Proxy proxy = (Proxy) fixture.getUserData();
+            if (fixture == proxy.hull && (proxy.collidable.getCategory() & queryMask) != 0) {
+                candidates.add(proxy.collidable);
+            }
+            return true;
+        }
+    };
+
+    private final ContactListener contactListener = new ContactListener() {
+        @Override
+        public void beginContact(Contact contact) {
+            Proxy fan = getFanProxy(contact);
+            if (fan != null) {
+                fan.touching.add(getHullProxy(contact).collidable);
+            }
+        }
+
+        @Override
+        public void endContact(Contact contact) {
+            Proxy fan = getFanProxy(contact);
+            if (fan != null) {
+                fan.touching.removeValue(getHullProxy(contact).collidable, true);
+            }
+        }
+
+        @Override
+        public void preSolve(Contact contact, Manifold oldManifold) {
+        }
+
+        @Override
+        public void postSolve(Contact contact, ContactImpulse impulse) {
+        }
+    };
+
+    protected Box2DCollisionEngine() {
+        Box2D.init();
+    }
+
+    @Override
+    public void init() {
+        if (world == null) {
+            world = new World(Vector2.Zero, true);
+            world.setContactListener(contactListener);
+        }
+    }
+
+    /**
+     * Box2D uses its own broadphase, so the type is ignored.
+     * @param type
+     */
+    @Override
+    public void init(com.singaporetech.eod.components.collision.BroadPhase.Type type) {
+        init();
+    }
+
+    @Override
+    public void tick() {
+        super.tick();
+
+        // nothing has velocity, stepping just moves the proxies and updates contacts
+        world.step(SETTINGS.BOX2D_STEP, 1, 1);
+    }
+
+    @Override
+    public long addCollidable(Collidable c) {
+        if (proxies.containsKey(c)) {
+            return collidables.handleOf(c);
+        }
+        init();
+
+        Vector2 pos = c.getBoundingCirclePos();
+        // movers need to be dynamic bodies or Box2D won't make contacts for them
+        bodyDef.type = c.isStatic() ? BodyDef.BodyType.StaticBody : BodyDef.BodyType.DynamicBody;
+        bodyDef.position.set(pos.x / SETTINGS.BOX2D_PPM, pos.y / SETTINGS.BOX2D_PPM);
+        bodyDef.gravityScale = 0;
+        bodyDef.fixedRotation = true;
+        bodyDef.allowSleep = true;
+        Body body = world.createBody(bodyDef);
+
+        // hull only needs contacts with fans, and only if it can be hit at all
+        Fixture hull = createCircle(body, c.getBoundingCircleRadius(), (short) c.getCategory(),
+                c.isCollidable() ? FAN_BIT : 0);
+        Proxy proxy = new Proxy(c, body, hull);
+        hull.setUserData(proxy);
+
+        if (!c.isStatic() && c.getMask() != CollisionLayer.NONE) {
+            proxy.fanRadius = getFanRadius(c);
+            proxy.fan = createCircle(body, proxy.fanRadius, FAN_BIT, (short) (c.getMask() & ~FAN_BIT));
+            proxy.fan.setUserData(proxy);
+        }
+
+        proxies.put(c, proxy);
+        if (c.isStatic()) {
+            ++staticVersion;
+        }
+        return collidables.add(c);
+    }
+
+    @Override
+    public boolean removeCollidable(long handle) {
+        Collidable c = collidables.remove(handle);
+        if (c == null) {
+            return false;
+        }
+
+        if (c.isStatic()) {
+            ++staticVersion;
+        }
+        Proxy proxy = proxies.remove(c);
+        if (proxy != null) {
+            // destroying the body ends its contacts, which takes it out of other fans' touching lists
+            world.destroyBody(proxy.body);
+        }
+        return true;
+    }
+
+    @Override
+    public void clearCollidables() {
+        for (Proxy proxy : proxies.values()) {
+            world.destroyBody(proxy.body);
+        }
+        proxies.clear();
+        collidables.clear();
+        ++staticVersion;
+    }
+
+    /**
+     * Move the body to follow its transform.
+     * - left untouched when it hasn't moved so it can fall asleep
+     * @param c
+     */
+    @Override
+    public void updateCollidable(Collidable c) {
+        Proxy proxy = proxies.get(c);
+        if (proxy == null || c.isStatic()) {
+            return;
+        }
+
+        if (proxy.fan != null) {
+            float fanRadius = getFanRadius(c);
+            if (Math.abs(fanRadius - proxy.fanRadius) > SETTINGS.BOX2D_FAN_SLOP) {
+                proxy.fanRadius = fanRadius;
+                proxy.fan.getShape().setRadius(fanRadius / SETTINGS.BOX2D_PPM);
+                proxy.body.setAwake(true);
+            }
+        }
+
+        Vector2 pos = c.getBoundingCirclePos();
+        bodyPos.set(pos.x / SETTINGS.BOX2D_PPM, pos.y / SETTINGS.BOX2D_PPM);
+        if (!bodyPos.epsilonEquals(proxy.body.getPosition(), SETTINGS.BOX2D_SLEEP_EPSILON)) {
+            proxy.body.setTransform(bodyPos, 0);
+            proxy.body.setAwake(true);
+        }
+    }
+
+    /**
+     * Fan candidates are whatever the fan sensor is touching.
+     */
+    @Override
+    protected void queryFan(Collider collider, int mask) {
+        candidates.clear();
+
+        Proxy proxy = proxies.get(collider);
+        if (proxy == null) {
+            return;
+        }
+        for (int i = 0; i < proxy.touching.size; ++i) {
+            Collidable c = proxy.touching.get(i);
+            if ((c.getCategory() & mask) != 0) {
+                candidates.add(c);
+            }
+        }
+    }
+
+    /**
+     * Box queries go through Box2D's broadphase.
+     */
+    @Override
+    protected void query(float minX, float minY, float maxX, float maxY, int mask) {
+        candidates.clear();
+
+        queryMask = mask;
+        world.QueryAABB(queryCallback,
+                minX / SETTINGS.BOX2D_PPM, minY / SETTINGS.BOX2D_PPM,
+                maxX / SETTINGS.BOX2D_PPM, maxY / SETTINGS.BOX2D_PPM);
+    }
+
+    /**
+     * Casts just test everything under the cast's box.
+     */
+    @Override
+    protected void traverseCast(float x0, float y0, float x1, float y1, float radius, int mask) {
+        query(Math.min(x0, x1) - radius, Math.min(y0, y1) - radius,
+                Math.max(x0, x1) + radius, Math.max(y0, y1) + radius, mask);
+        for (int i = 0; i < candidates.size; ++i) {
+            testCast(candidates.get(i));
+        }
+    }
+
+    @Override
+    public void finalize() {
+        super.finalize();
+
+        if (world != null) {
+            world.dispose();
+            world = null;
+        }
+        proxies.clear();
+        collidables.clear();
+        ++staticVersion;
+    }
+
+    private Fixture createCircle(Body body, float radius, short category, int mask) {
+        CircleShape shape = new CircleShape();
+        shape.setRadius(radius / SETTINGS.BOX2D_PPM);
+        fixtureDef.shape = shape;
+        fixtureDef.isSensor = true;
+        fixtureDef.filter.categoryBits = category;
+        fixtureDef.filter.maskBits = (short) mask;
+        Fixture fixture = body.createFixture(fixtureDef);
+        shape.dispose();
+        return fixture;
+    }
+
+    private static float getFanRadius(Collidable c) {
+        float reach = c instanceof Collider ? ((Collider) c).getCollisionVecLen() : 0;
+        return Math.max(reach, c.getBoundingCircleRadius());
+    }
+
+    /**
+     * @return proxy whose fan is in the contact, null if it isn't a fan vs hull contact
+     */
+    private static Proxy getFanProxy(Contact contact) {
+        Fixture a = contact.getFixtureA();
+        Fixture b = contact.getFixtureB();
+        Proxy proxyA = (Proxy) a.getUserData();
+        Proxy proxyB = (Proxy) b.getUserData();
+        if (a == proxyA.fan && b == proxyB.hull) {
+            return proxyA;
+        }
+        if (b == proxyB.fan && a == proxyA.hull) {
+            return proxyB;
+        }
+        return null;
+    }
+
+    private static Proxy getHullProxy(Contact contact) {
+        Fixture a = contact.getFixtureA();
+        Proxy proxyA = (Proxy) a.getUserData();
+        return a == proxyA.hull ? proxyA : (Proxy) contact.getFixtureB().getUserData();
+    }
+}
@@ -1,28 +1,93 @@
 package com.singaporetech.eod;
 
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.singaporetech.eod.components.collision.BroadPhase;
 import com.singaporetech.eod.components.collision.Collidable;
 import com.singaporetech.eod.components.collision.Collider;
-
-import java.util.LinkedList;
-import java.util.List;
+import com.singaporetech.eod.components.collision.CollisionLayer;
+import com.singaporetech.eod.components.collision.FanNarrowPhase;
+import com.singaporetech.eod.components.collision.LooseQuadtree;
+import com.singaporetech.eod.components.collision.RaycastHit;
+import com.singaporetech.eod.components.collision.SpatialHash;
+import com.singaporetech.eod.components.collision.StaticColliderIndex;
+import com.singaporetech.eod.components.collision.SweepAndPrune;
 
 /**
  * Created by mrchek on 24/1/17.
  * NOTE THAT THIS IS LEGACY CODE THAT HAS NO PROPER COMMENTS
  */
 public class CollisionEngine implements Engine {
-    private List<com.singaporetech.eod.components.collision.Collidable> collidables = new LinkedList<com.singaporetech.eod.components.collision.Collidable>();
+    /**
+     * How movers are kept from tunnelling through things when a frame's step is large.
+     * - OFF: plain discrete movement
+     * - SWEEP: swept circle time of impact for every move, stops at first contact then slides
+     * - SUBSTEP: only moves longer than the mover's radius are split into radius sized steps
+     */
+    public enum CcdMode {OFF, SWEEP, SUBSTEP}
+
+    /**
+     * Which implementation i() hands out, see Box2DCollisionEngine.
+     */
+    public enum Backend {JAVA, BOX2D}
+
+    // registry, colliders keep the handle from addCollidable() to remove themselves
+    protected SlotMap<Collidable> collidables = new SlotMap<Collidable>();
+
+    // broadphase so queries only look at nearby collidables
+    // - only for things that move, static ones are baked separately as they never need updating
+    // - one per layer so a query only visits the layers in its mask
+    private BroadPhase.Type broadPhaseType = SETTINGS.BROADPHASE;
+    private BroadPhase[] broadPhases = new BroadPhase[Integer.SIZE];
+    private int dynamicLayers = CollisionLayer.NONE;
+    private Array<Collidable> staticCollidables = new Array<Collidable>();
+    private StaticColliderIndex staticIndex = StaticColliderIndex.EMPTY;
+    private int staticLayers = CollisionLayer.NONE;
+    private boolean isStaticIndexDirty = false;
 
-    private static CollisionEngine instance = new CollisionEngine();
+    // bumped whenever a static collidable comes or goes, e.g., so navigation knows to rebake
+    protected int staticVersion = 0;
+    protected Array<Collidable> candidates = new Array<Collidable>(false, 64);
+    private FanNarrowPhase fanBatch = new FanNarrowPhase();
+
+    // continuous collision scratch
+    private CcdMode ccdMode = SETTINGS.CCD_MODE;
+    private Vector2 sweepNorm = new Vector2();
+    private Vector2 sweepRest = new Vector2();
+    private Vector2 sweepPos = new Vector2();
+
+    // cast state, fields so casts don't need a new callback every call
+    private float castX, castY, castDx, castDy, castLen2, castRadius;
+    private int castMask;
+    private boolean isCastAny;
+    private RaycastHit castHit;
+    private RaycastHit lineOfSightHit = new RaycastHit();
+
+    // neighbour query scratch, distances kept alongside the out array while sorting
+    private float[] neighbourDist2 = new float[64];
+    private final BroadPhase.RayCallback castCallback = new BroadPhase.RayCallback() {
+        @Override
+        public float reportCandidate(Collidable c) {
+            if ((c.getCategory() & castMask) != 0) {
+                testCast(c);
+            }
+            // any hit will do for line of sight, so stop right away
+            return isCastAny && castHit.isHit() ? 0 : castHit.getFraction();
+        }
+    };
+
+    private static CollisionEngine instance;
     public static CollisionEngine i(){
+        if (instance == null) {
+            instance = SETTINGS.COLLISION_BACKEND == Backend.BOX2D ? new Box2DCollisionEngine() : new CollisionEngine();
+        }
         return instance;
     }
-    private CollisionEngine() {}
+    protected CollisionEngine() {}
 
     public void tick() {
         // do collision responses to prevent overlapping objects
-        // todo: quadtrees when things grow big
         /*
         for (Collidable c1: collidables) {
             for (Collidable c2: collidables) {
@@ -36,7 +101,39 @@ public class CollisionEngine implements Engine {
 
     @Override
     public void init() {
+        init(SETTINGS.BROADPHASE);
+    }
+
+    /**
+     * Choose the broadphase, e.g., per level depending on how the map is laid out.
+     * - anything already registered is moved across
+     * @param type
+     */
+    public void init(BroadPhase.Type type) {
+        broadPhaseType = type;
+        for (int i = 0; i < broadPhases.length; ++i) {
+            broadPhases[i] = null;
+        }
+        dynamicLayers = CollisionLayer.NONE;
 
+        for (int i = 0; i < collidables.size(); ++i) {
+            Collidable c = collidables.getAt(i);
+            if (!c.isStatic()) {
+                addDynamic(c);
+            }
+        }
+    }
+
+    public static BroadPhase createBroadPhase(BroadPhase.Type type) {
+        switch (type) {
+            case QUADTREE:
+                return new LooseQuadtree();
+            case SWEEP_AND_PRUNE:
+                return new SweepAndPrune();
+            case GRID:
+            default:
+                return new SpatialHash();
+        }
     }
 
     /**
@@ -45,15 +142,22 @@ public class CollisionEngine implements Engine {
      * @return
      */
     public Vector2 getCollisionNorm(com.singaporetech.eod.components.collision.Collider collider) {
-        for (com.singaporetech.eod.components.collision.Collidable c: collidables) {
-            if (!collider.equals((com.singaporetech.eod.components.collision.Collider)c) && c.isCollidable()) {
-                Vector2 collisionNorm = collider.getCollisionNorm(c);
-                if (collisionNorm != null) {
-                    return collisionNorm;
-                }
-            }
+        return getCollisionNorm(collider, collider.getMask());
+    }
+
+    /**
+     * Check if collider has collided with any other collidables on the given layers
+     * @param collider
+     * @param mask
+     * @return
+     */
+    public Vector2 getCollisionNorm(Collider collider, int mask) {
+        int hit = testFan(collider, mask);
+        if (hit < 0) {
+            return null;
         }
-        return null;
+        wakeOwner(fanBatch.get(hit));
+        return collider.getCollisionNorm(fanBatch.get(hit), fanBatch.getHitEdge());
     }
 
     /**
@@ -62,19 +166,393 @@ public class CollisionEngine implements Engine {
      * @return
      */
     public Vector2 getCollisionAvoidTarget(com.singaporetech.eod.components.collision.Collider collider) {
-        for (com.singaporetech.eod.components.collision.Collidable c: collidables) {
-            if (!collider.equals((Collider)c) && c.isCollidable()) {
-                Vector2 target = collider.getCollisionAvoidTarget(c);
-                if (target != null) {
-                    return target;
-                }
+        return getCollisionAvoidTarget(collider, collider.getMask());
+    }
+
+    /**
+     * Get a new target offset from the obstacle on the given layers, for steering purposes
+     * @param collider
+     * @param mask
+     * @return
+     */
+    public Vector2 getCollisionAvoidTarget(Collider collider, int mask) {
+        int hit = testFan(collider, mask);
+        if (hit < 0) {
+            return null;
+        }
+        wakeOwner(fanBatch.get(hit));
+        return collider.getCollisionAvoidTarget(fanBatch.get(hit), fanBatch.getHitEdge());
+    }
+
+    /**
+     * A mover ran into something that may be asleep, static things never need to wake.
+     */
+    private static void wakeOwner(Collidable c) {
+        if (!c.isStatic() && c.getOwner() != null) {
+            c.getOwner().wake();
+        }
+    }
+
+    public void setCcdMode(CcdMode ccdMode) {
+        this.ccdMode = ccdMode;
+    }
+
+    public CcdMode getCcdMode() {
+        return ccdMode;
+    }
+
+    /**
+     * Continuous collision: shorten a move so the collider stops at the first thing in its mask
+     * that it would otherwise pass through, e.g., a big step after a frame hitch.
+     * - only collidables that are isCollidable() block
+     * - things already overlapping only block moving further in, so movers can always get out
+     * @param collider the mover
+     * @param from where the collider's circle starts, i.e., the transform position
+     * @param disp the displacement for this step, clipped in place
+     * @return disp
+     */
+    public Vector2 clipDisplacement(Collider collider, Vector2 from, Vector2 disp) {
+        if (collider.getMask() == CollisionLayer.NONE || disp.isZero()) {
+            return disp;
+        }
+
+        switch (ccdMode) {
+            case SWEEP:
+                return sweepAndSlide(collider, from, disp);
+            case SUBSTEP:
+                return substep(collider, from, disp);
+            case OFF:
+            default:
+                return disp;
+        }
+    }
+
+    /**
+     * Move until first contact, then slide the rest of the move along the contact tangent.
+     */
+    private Vector2 sweepAndSlide(Collider collider, Vector2 from, Vector2 disp) {
+        float toi = sweep(collider, from.x, from.y, disp.x, disp.y);
+        if (toi >= 1) {
+            return disp;
+        }
+
+        // slide what's left, minus the part pushing into the obstacle
+        sweepRest.set(disp).scl(1 - toi);
+        float into = sweepRest.dot(sweepNorm);
+        if (into < 0) {
+            sweepRest.mulAdd(sweepNorm, -into);
+        }
+        disp.scl(toi);
+
+        sweepPos.set(from).add(disp);
+        float slideToi = sweep(collider, sweepPos.x, sweepPos.y, sweepRest.x, sweepRest.y);
+        return disp.mulAdd(sweepRest, Math.min(slideToi, 1));
+    }
+
+    /**
+     * Time of impact of the collider's circle moving from (x, y) by (dx, dy).
+     * - sets sweepNorm to the contact normal pointing away from what was hit
+     * @return fraction of the move that is free, 1 if nothing was hit
+     */
+    private float sweep(Collider collider, float x, float y, float dx, float dy) {
+        float len2 = dx * dx + dy * dy;
+        if (len2 == 0) {
+            return 1;
+        }
+        float r = collider.getBoundingCircleRadius();
+        query(Math.min(x, x + dx) - r, Math.min(y, y + dy) - r,
+                Math.max(x, x + dx) + r, Math.max(y, y + dy) + r, collider.getMask());
+
+        float toi = 1;
+        for (int i = 0; i < candidates.size; ++i) {
+            Collidable c = candidates.get(i);
+            if (c == collider || !c.isCollidable()) {
+                continue;
+            }
+
+            Vector2 otherPos = c.getBoundingCirclePos();
+            float mx = x - otherPos.x;
+            float my = y - otherPos.y;
+            float t = timeOfImpact(mx, my, dx, dy, len2, r + c.getBoundingCircleRadius());
+
+            if (t < toi) {
+                // back off a little so we end just short of touching
+                toi = Math.max(t - SETTINGS.CCD_SKIN / (float) Math.sqrt(len2), 0);
+                sweepNorm.set(mx + t * dx, my + t * dy).nor();
             }
         }
-        return null;
+        return toi;
+    }
+
+    /**
+     * Smallest t where a circle at m moving by d touches another circle at the origin,
+     * i.e., solves |m + t*d| = sumR.
+     * @return 0 if already touching and moving in, POSITIVE_INFINITY if moving apart or missing
+     */
+    private static float timeOfImpact(float mx, float my, float dx, float dy, float len2, float sumR) {
+        float b = mx * dx + my * dy;
+        if (b >= 0) {
+            // moving apart or sideways
+            return Float.POSITIVE_INFINITY;
+        }
+        float c = mx * mx + my * my - sumR * sumR;
+        if (c <= 0) {
+            return 0;
+        }
+        float disc = b * b - len2 * c;
+        if (disc < 0) {
+            return Float.POSITIVE_INFINITY;
+        }
+        return (-b - (float) Math.sqrt(disc)) / len2;
+    }
+
+    /**
+     * First collidable in the mask along a ray.
+     * @param origin
+     * @param dir doesn't need to be normalised, a zero one has no direction and hits nothing
+     * @param maxDist
+     * @param mask
+     * @param hit filled in with the nearest hit, if any
+     * @return true if something was hit
+     */
+    public boolean raycast(Vector2 origin, Vector2 dir, float maxDist, int mask, RaycastHit hit) {
+        if (dir.isZero()) {
+            hit.reset();
+            return false;
+        }
+        float scale = maxDist / dir.len();
+        return cast(origin.x, origin.y, origin.x + dir.x * scale, origin.y + dir.y * scale, 0, mask, hit, false);
+    }
+
+    /**
+     * First collidable in the mask along the segment from one point to another.
+     */
+    public boolean segmentCast(Vector2 from, Vector2 to, int mask, RaycastHit hit) {
+        return cast(from.x, from.y, to.x, to.y, 0, mask, hit, false);
+    }
+
+    /**
+     * First collidable in the mask touched by a circle moving from one point to another.
+     * - hit point is on the surface of what was hit, fraction is where the moving circle is then
+     */
+    public boolean circleCast(Vector2 from, Vector2 to, float radius, int mask, RaycastHit hit) {
+        return cast(from.x, from.y, to.x, to.y, radius, mask, hit, false);
+    }
+
+    /**
+     * Whether nothing in the mask blocks the segment between two points, e.g., can a bug see the player.
+     * - stops at the first blocker found rather than looking for the nearest
+     */
+    public boolean hasLineOfSight(Vector2 from, Vector2 to, int mask) {
+        return !cast(from.x, from.y, to.x, to.y, 0, mask, lineOfSightHit, true);
+    }
+
+    /**
+     * Shared by all the casts.
+     * - collidables the cast starts inside of are ignored, so casting from a collider's own
+     *   position doesn't hit itself
+     */
+    private boolean cast(float x0, float y0, float x1, float y1, float radius, int mask, RaycastHit hit, boolean isAny) {
+        hit.reset();
+        castX = x0;
+        castY = y0;
+        castDx = x1 - x0;
+        castDy = y1 - y0;
+        castLen2 = castDx * castDx + castDy * castDy;
+        castRadius = radius;
+        castMask = mask;
+        isCastAny = isAny;
+        castHit = hit;
+
+        if (castLen2 > 0) {
+            traverseCast(x0, y0, x1, y1, radius, mask);
+        }
+        castHit = null;
+        return hit.isHit();
+    }
+
+    /**
+     * Feed castCallback with the candidates along a cast.
+     * - statics first since walls are what usually block, which lets the dynamic walk stop earlier
+     */
+    protected void traverseCast(float x0, float y0, float x1, float y1, float radius, int mask) {
+        float maxFraction = 1;
+        if ((staticLayers & mask) != 0) {
+            maxFraction = getStaticIndex().raycast(x0, y0, x1, y1, radius, maxFraction, castCallback);
+        }
+
+        int layers = dynamicLayers & mask;
+        while (layers != 0) {
+            int layer = Integer.numberOfTrailingZeros(layers);
+            maxFraction = broadPhases[layer].raycast(x0, y0, x1, y1, radius, maxFraction, castCallback);
+            layers &= layers - 1;
+        }
+    }
+
+    /**
+     * Narrowphase for a cast, keeps the nearest hit in castHit.
+     */
+    protected void testCast(Collidable c) {
+        Vector2 otherPos = c.getBoundingCirclePos();
+        float otherRadius = c.getBoundingCircleRadius();
+        float mx = castX - otherPos.x;
+        float my = castY - otherPos.y;
+        float sumR = castRadius + otherRadius;
+        if (mx * mx + my * my <= sumR * sumR) {
+            return;
+        }
+
+        float t = timeOfImpact(mx, my, castDx, castDy, castLen2, sumR);
+        if (t <= 1 && (!castHit.isHit() || t < castHit.getFraction())) {
+            float nx = (mx + t * castDx) / sumR;
+            float ny = (my + t * castDy) / sumR;
+            castHit.set(c, t, otherPos.x + nx * otherRadius, otherPos.y + ny * otherRadius, nx, ny);
+        }
+    }
+
+    /**
+     * Every collidable in the mask whose bounding circle touches a circle around pos, nearest first.
+     * - distance is to the collidable's centre
+     * @param pos
+     * @param radius
+     * @param mask
+     * @param out cleared and filled, reuse it between calls
+     * @return out
+     */
+    public Array<Collidable> queryRadius(Vector2 pos, float radius, int mask, Array<Collidable> out) {
+        out.clear();
+        query(pos.x - radius, pos.y - radius, pos.x + radius, pos.y + radius, mask);
+
+        for (int i = 0; i < candidates.size; ++i) {
+            Collidable c = candidates.get(i);
+            if ((c.getCategory() & mask) == 0) {
+                continue;
+            }
+            float dist2 = pos.dst2(c.getBoundingCirclePos());
+            float reach = radius + c.getBoundingCircleRadius();
+            if (dist2 <= reach * reach) {
+                addSortedByDist(out, c, dist2);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * The k collidables in the mask whose centres are nearest to pos, nearest first.
+     * - searches outwards in growing circles up to SETTINGS.KNN_MAX_RADIUS
+     * - a collidable sitting at pos, e.g., the caller's own, counts too so ask for one more
+     * @param out cleared and filled with at most k, reuse it between calls
+     * @return out
+     */
+    public Array<Collidable> kNearest(Vector2 pos, int k, int mask, Array<Collidable> out) {
+        return kNearest(pos, k, SETTINGS.KNN_MAX_RADIUS, mask, out);
+    }
+
+    /**
+     * Same as above but only looking as far as maxDist.
+     */
+    public Array<Collidable> kNearest(Vector2 pos, int k, float maxDist, int mask, Array<Collidable> out) {
+        out.clear();
+        if (k <= 0) {
+            return out;
+        }
+
+        float radius = Math.min(SETTINGS.KNN_START_RADIUS, maxDist);
+        while (true) {
+            queryRadius(pos, radius, mask, out);
+
+            // the first k are final once the k-th is inside the searched circle,
+            // anything nearer has to be inside it too
+            if (out.size >= k && neighbourDist2[k - 1] <= radius * radius) {
+                break;
+            }
+            if (radius >= maxDist) {
+                break;
+            }
+            radius = Math.min(radius * 2, maxDist);
+        }
+
+        // drop what is further than maxDist or past the first k
+        int size = Math.min(out.size, k);
+        while (size > 0 && neighbourDist2[size - 1] > maxDist * maxDist) {
+            --size;
+        }
+        out.truncate(size);
+        return out;
+    }
+
+    /**
+     * Insertion into out keeping it sorted by distance, neighbourhoods are small so this beats a full sort.
+     */
+    private void addSortedByDist(Array<Collidable> out, Collidable c, float dist2) {
+        if (out.size == neighbourDist2.length) {
+            float[] newDist2 = new float[neighbourDist2.length * 2];
+            System.arraycopy(neighbourDist2, 0, newDist2, 0, out.size);
+            neighbourDist2 = newDist2;
+        }
+
+        out.add(c);
+        int i = out.size - 1;
+        while (i > 0 && neighbourDist2[i - 1] > dist2) {
+            neighbourDist2[i] = neighbourDist2[i - 1];
+            out.set(i, out.get(i - 1));
+            --i;
+        }
+        neighbourDist2[i] = dist2;
+        out.set(i, c);
+    }
+
+    /**
+     * Cheaper option, discrete checks at radius sized steps but only for moves long enough to tunnel.
+     */
+    private Vector2 substep(Collider collider, Vector2 from, Vector2 disp) {
+        float r = collider.getBoundingCircleRadius();
+        float len = disp.len();
+        if (len <= r) {
+            return disp;
+        }
+
+        int steps = MathUtils.ceil(len / r);
+        float stepX = disp.x / steps;
+        float stepY = disp.y / steps;
+        query(Math.min(from.x, from.x + disp.x) - r, Math.min(from.y, from.y + disp.y) - r,
+                Math.max(from.x, from.x + disp.x) + r, Math.max(from.y, from.y + disp.y) + r, collider.getMask());
+
+        int step = 0;
+        while (step < steps && !blocksStep(collider, from.x + stepX * (step + 1), from.y + stepY * (step + 1), r, stepX, stepY)) {
+            ++step;
+        }
+        return disp.set(stepX * step, stepY * step);
+    }
+
+    /**
+     * Whether a candidate overlaps the circle at (x, y) while it's moving into it.
+     */
+    private boolean blocksStep(Collider collider, float x, float y, float r, float stepX, float stepY) {
+        for (int i = 0; i < candidates.size; ++i) {
+            Collidable c = candidates.get(i);
+            if (c == collider || !c.isCollidable()) {
+                continue;
+            }
+            Vector2 otherPos = c.getBoundingCirclePos();
+            float mx = x - otherPos.x;
+            float my = y - otherPos.y;
+            float sumR = r + c.getBoundingCircleRadius();
+            if (mx * mx + my * my < sumR * sumR && mx * stepX + my * stepY < 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public GameObject getObjectCollidedWithPos(Vector2 pos){
-        for (com.singaporetech.eod.components.collision.Collidable c:collidables) {
+        return getObjectCollidedWithPos(pos, CollisionLayer.ALL);
+    }
+
+    public GameObject getObjectCollidedWithPos(Vector2 pos, int mask){
+        query(pos.x, pos.y, pos.x, pos.y, mask);
+        for (int i = 0; i < candidates.size; ++i) {
+            Collidable c = candidates.get(i);
             if (c.collidedWithPos(pos)) {
                 return c.getOwner();
             }
@@ -82,20 +560,190 @@ public class CollisionEngine implements Engine {
         return null;
     }
 
+    /**
+     * Batch up the collidables that can possibly touch the collider's forward fan
+     * and test them all in one go.
+     * @return index into fanBatch of the nearest hit, or -1
+     */
+    private int testFan(Collider collider, int mask) {
+        queryFan(collider, mask);
+
+        fanBatch.clear();
+        for (int i = 0; i < candidates.size; ++i) {
+            Collidable c = candidates.get(i);
+            if (c != collider && c.isCollidable()) {
+                fanBatch.add(c);
+            }
+        }
+        return collider.testFan(fanBatch);
+    }
+
+    /**
+     * Gather the collidables that can possibly touch the collider's forward fan.
+     * @param collider
+     */
+    protected void queryFan(Collider collider, int mask) {
+        Vector2 pos = collider.getBoundingCirclePos();
+        float reach = Math.max(collider.getCollisionVecLen(), collider.getBoundingCircleRadius());
+
+        query(pos.x - reach, pos.y - reach, pos.x + reach, pos.y + reach, mask);
+    }
+
+    /**
+     * Fill candidates from both the static and dynamic sets, only visiting layers in the mask.
+     */
+    protected void query(float minX, float minY, float maxX, float maxY, int mask) {
+        candidates.clear();
+
+        if ((staticLayers & mask) != 0) {
+            int start = candidates.size;
+            getStaticIndex().query(minX, minY, maxX, maxY, candidates);
+
+            // statics share one index, so filter out the layers not asked for
+            if ((staticLayers & ~mask) != 0) {
+                for (int i = candidates.size - 1; i >= start; --i) {
+                    if ((candidates.get(i).getCategory() & mask) == 0) {
+                        candidates.removeIndex(i);
+                    }
+                }
+            }
+        }
+
+        int layers = dynamicLayers & mask;
+        while (layers != 0) {
+            int layer = Integer.numberOfTrailingZeros(layers);
+            broadPhases[layer].query(minX, minY, maxX, maxY, candidates);
+            layers &= layers - 1;
+        }
+    }
+
+    private BroadPhase getBroadPhase(Collidable c) {
+        if (c.getCategory() == CollisionLayer.NONE) {
+            return null;
+        }
+        return broadPhases[Integer.numberOfTrailingZeros(c.getCategory())];
+    }
+
+    private void addDynamic(Collidable c) {
+        if (c.getCategory() == CollisionLayer.NONE) {
+            return;
+        }
+        int layer = Integer.numberOfTrailingZeros(c.getCategory());
+        if (broadPhases[layer] == null) {
+            broadPhases[layer] = createBroadPhase(broadPhaseType);
+            dynamicLayers |= 1 << layer;
+        }
+        broadPhases[layer].insert(c);
+    }
+
+    /**
+     * Static colliders are baked lazily so adding a whole map of blocks only bakes once.
+     * @return
+     */
+    public StaticColliderIndex getStaticIndex() {
+        if (isStaticIndexDirty) {
+            staticIndex = StaticColliderIndex.bake(staticCollidables);
+            isStaticIndexDirty = false;
+        }
+        return staticIndex;
+    }
+
+    /**
+     * Every static collidable, whichever backend holds them.
+     * @param out is not cleared, results are appended
+     */
+    public Array<Collidable> getStaticCollidables(Array<Collidable> out) {
+        for (int i = 0; i < collidables.size(); ++i) {
+            Collidable c = collidables.getAt(i);
+            if (c.isStatic()) {
+                out.add(c);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @return changes whenever the static collidables do
+     */
+    public int getStaticVersion() {
+        return staticVersion;
+    }
+
+    /**
+     * Rebin a collidable in the broadphase after it has moved.
+     * @param c
+     */
+    public void updateCollidable(Collidable c) {
+        if (!c.isStatic()) {
+            BroadPhase broadPhase = getBroadPhase(c);
+            if (broadPhase != null) {
+                broadPhase.update(c);
+            }
+        }
+    }
+
     public boolean isFreeOfCollisions(Vector2 pos) {
         return (getObjectCollidedWithPos(pos) == null);
     }
 
-    public void addCollidable(com.singaporetech.eod.components.collision.Collidable c) {
-        collidables.add(c);
+    public boolean isFreeOfCollisions(Vector2 pos, int mask) {
+        return (getObjectCollidedWithPos(pos, mask) == null);
     }
 
-    public void removeCollidable(Collidable c) {
-        collidables.remove(c);
+    /**
+     * @param c
+     * @return handle to remove it with
+     */
+    public long addCollidable(Collidable c) {
+        long handle = collidables.add(c);
+        if (c.isStatic()) {
+            staticCollidables.add(c);
+            staticLayers |= c.getCategory();
+            isStaticIndexDirty = true;
+            ++staticVersion;
+        }
+        else {
+            addDynamic(c);
+        }
+        return handle;
+    }
+
+    /**
+     * @param handle from addCollidable()
+     * @return false if it was already removed
+     */
+    public boolean removeCollidable(long handle) {
+        Collidable c = collidables.remove(handle);
+        if (c == null) {
+            return false;
+        }
+
+        if (c.isStatic()) {
+            staticCollidables.removeValue(c, true);
+            isStaticIndexDirty = true;
+            ++staticVersion;
+        }
+        else {
+            BroadPhase broadPhase = getBroadPhase(c);
+            if (broadPhase != null) {
+                broadPhase.remove(c);
+            }
+        }
+        return true;
     }
 
     public void clearCollidables() {
         collidables.clear();
+        for (BroadPhase broadPhase : broadPhases) {
+            if (broadPhase != null) {
+                broadPhase.clear();
+            }
+        }
+        staticCollidables.clear();
+        staticLayers = CollisionLayer.NONE;
+        staticIndex = StaticColliderIndex.EMPTY;
+        isStaticIndexDirty = false;
+        ++staticVersion;
     }
 
     @Override
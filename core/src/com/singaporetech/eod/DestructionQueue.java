@@ -0,0 +1,98 @@
+package com.singaporetech.eod;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Pooled GameObjects waiting to be taken out of the game after setDestroyed().
+ * - each entry has a delay so e.g. a bug can finish its destruct animation first
+ * - drained once at the end of the frame, everything due goes back to its pool together
+ * - entries sit in dense arrays and are swap removed, so nothing scans for destroyed objects
+ * - objects without a pool (e.g., the player) are only flagged, their owner deals with them
+ */
+public class DestructionQueue implements Engine {
+    private static final String TAG = "DestructionQueue";
+
+    private GameObject[] objects = new GameObject[32];
+    private float[] delays = new float[32];
+    private int size = 0;
+
+    // due this frame
+    private Array<GameObject> due = new Array<GameObject>(false, 32);
+
+    private static DestructionQueue instance = new DestructionQueue();
+    public static DestructionQueue i() {
+        return instance;
+    }
+    private DestructionQueue() {}
+
+    @Override
+    public void init() {
+        clear();
+    }
+
+    public void add(GameObject go, float delay) {
+        if (size == objects.length) {
+            GameObject[] newObjects = new GameObject[size * 2];
+            System.arraycopy(objects, 0, newObjects, 0, size);
+            objects = newObjects;
+            float[] newDelays = new float[size * 2];
+            System.arraycopy(delays, 0, newDelays, 0, size);
+            delays = newDelays;
+        }
+        objects[size] = go;
+        delays[size] = delay;
+        ++size;
+    }
+
+    @Override
+    public void tick() {
+        tick(Gdx.graphics.getDeltaTime());
+    }
+
+    /**
+     * Count down the delays and free everything due.
+     * @param dt
+     */
+    public void tick(float dt) {
+        for (int i = 0; i < size; ++i) {
+            delays[i] -= dt;
+            if (delays[i] <= 0) {
+                due.add(objects[i]);
+
+                // swap remove, then look at what was swapped in
+                --size;
+                objects[i] = objects[size];
+                delays[i] = delays[size];
+                objects[size] = null;
+                --i;
+            }
+        }
+
+        for (int i = 0; i < due.size; ++i) {
+            GameObject go = due.get(i);
+            go.getPool().free(go);
+        }
+        due.clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Forget everything waiting, e.g., when the pools themselves are being cleared.
+     */
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            objects[i] = null;
+        }
+        size = 0;
+        due.clear();
+    }
+
+    @Override
+    public void finalize() {
+        clear();
+    }
+}
@@ -24,6 +24,7 @@ public class Game extends com.badlogic.gdx.Game {
         // init engines
         RenderEngine.i().init();
         com.singaporetech.eod.CollisionEngine.i().init();
+        SystemEngine.i().init();
 
         playScreen = new PlayScreen();
         setScreen(playScreen);
@@ -59,6 +60,7 @@ public class Game extends com.badlogic.gdx.Game {
         Gdx.app.log(TAG, "in Game.dispose()");
         playScreen.dispose();
 
+        SystemEngine.i().finalize();
         CollisionEngine.i().finalize();
         RenderEngine.i().finalize();
 	}
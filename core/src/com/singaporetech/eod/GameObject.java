@@ -1,6 +1,8 @@
 package com.singaporetech.eod;
 
+import com.badlogic.gdx.utils.Bits;
 import com.singaporetech.eod.components.Component;
+import com.singaporetech.eod.components.ComponentType;
 import com.singaporetech.eod.components.render.Renderable;
 
 import java.util.ArrayList;
@@ -14,33 +16,69 @@ import java.util.List;
 public class GameObject {
     protected String name;
     protected boolean isDestroyed = false;
+    protected boolean isAsleep = false;
     protected List<com.singaporetech.eod.components.Component> components = new ArrayList<com.singaporetech.eod.components.Component>();
 
+    // components indexed by ComponentType id, plus a bit per type present
+    protected Component[] componentsByType = new Component[16];
+    protected Bits componentBits = new Bits();
+    protected Renderable renderable;
+
+    // pool this came from, destroyed objects go back to it through the DestructionQueue
+    protected GameObjectPool pool;
+
     public GameObject (String name) {
         this.name = name;
     }
 
     /**
-     * I know there are very little components in an object, so no need for hash table.
+     * Look up a component by type, also finds subclasses, e.g., SpriteSheet finds a SpriteSheetBug.
+     * - an exact match wins, otherwise it is the first one added
+     * @param type class of component
+     * @return the component object, or null if does not exist
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component> T getComponent(Class<T> type) {
+        int id = ComponentType.getId(type);
+        return id < componentsByType.length ? (T) componentsByType[id] : null;
+    }
+
+    public boolean hasComponent(Class<? extends Component> type) {
+        return componentBits.get(ComponentType.getId(type));
+    }
+
+    /**
+     * One bit per ComponentType id present, superclasses included.
+     * @return shared bits, don't modify
+     */
+    public Bits getComponentBits() {
+        return componentBits;
+    }
+
+    /**
+     * Older lookup by the name given to the component.
+     * - prefer getComponent(Class), this one scans all the components
      * @param name  name of component
      * @return the component object, or null if does not exist
      */
     public com.singaporetech.eod.components.Component getComponent(String name) {
         for (com.singaporetech.eod.components.Component c: components) {
-            if (c.getName() == name) {
+            if (c.getName().equals(name)) {
                 return c;
             }
         }
         return null;
     }
 
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    /**
+     * First renderable added.
+     */
     public com.singaporetech.eod.components.render.Renderable getRenderable() {
-        for (com.singaporetech.eod.components.Component c: components) {
-            if (c instanceof com.singaporetech.eod.components.render.Renderable) {
-                return (Renderable)c;
-            }
-        }
-        return null;
+        return renderable;
     }
 
     /**
@@ -55,10 +93,69 @@ public class GameObject {
         for (com.singaporetech.eod.components.Component c: components) {
             c.init(this);
         }
+
+        // join the systems now that all the components are linked up
+        SystemEngine.i().addEntity(this);
     }
 
     public void addComponent(com.singaporetech.eod.components.Component component) {
         components.add(component);
+
+        // index under its own type and every supertype
+        int[] lineage = ComponentType.getLineage(component.getClass());
+        for (int i = 0; i < lineage.length; ++i) {
+            int id = lineage[i];
+            if (id >= componentsByType.length) {
+                Component[] grown = new Component[Math.max(id + 1, componentsByType.length * 2)];
+                System.arraycopy(componentsByType, 0, grown, 0, componentsByType.length);
+                componentsByType = grown;
+            }
+            Component existing = componentsByType[id];
+            boolean isExact = i == 0;
+            if (existing == null || (isExact && existing.getClass() != component.getClass())) {
+                componentsByType[id] = component;
+            }
+            componentBits.set(id);
+        }
+
+        if (renderable == null && component instanceof Renderable) {
+            renderable = (Renderable) component;
+        }
+    }
+
+    /**
+     * Prefabs: where each type's component sits in the component list, -1 if none.
+     */
+    int[] getTypeSlots() {
+        int[] slots = new int[componentsByType.length];
+        for (int id = 0; id < slots.length; ++id) {
+            slots[id] = componentsByType[id] == null ? -1 : components.indexOf(componentsByType[id]);
+        }
+        return slots;
+    }
+
+    /**
+     * Prefabs: add components laid out like the object the slots and bits came from.
+     * - same result as addComponent() on each, minus working out the type index again
+     * @param list components in the prefab's order
+     * @param typeSlots from getTypeSlots()
+     * @param bits from getComponentBits()
+     * @param renderableSlot index of the first renderable, -1 if none
+     */
+    void addComponents(Component[] list, int[] typeSlots, Bits bits, int renderableSlot) {
+        for (int i = 0; i < list.length; ++i) {
+            components.add(list[i]);
+        }
+        if (componentsByType.length < typeSlots.length) {
+            componentsByType = new Component[typeSlots.length];
+        }
+        for (int id = 0; id < typeSlots.length; ++id) {
+            int slot = typeSlots[id];
+            componentsByType[id] = slot < 0 ? null : list[slot];
+        }
+        componentBits.clear();
+        componentBits.or(bits);
+        renderable = renderableSlot < 0 ? null : (Renderable) list[renderableSlot];
     }
 
     public void update(float dt) {
@@ -72,14 +169,99 @@ public class GameObject {
     }
 
     public void setDestroyed() {
+        setDestroyed(0);
+    }
+
+    /**
+     * Flag as destroyed, pooled objects are then taken out of the game after the delay.
+     * @param delay secs to stay in the game, e.g., to finish a fade out
+     */
+    public void setDestroyed(float delay) {
+        if (isDestroyed) {
+            return;
+        }
         isDestroyed = true;
+
+        if (pool != null) {
+            DestructionQueue.i().add(this, delay);
+        }
+    }
+
+    /**
+     * Drop out of every system until wake(), see SleepSystem.
+     */
+    public void sleep() {
+        if (!isAsleep) {
+            isAsleep = true;
+            SystemEngine.i().sleepEntity(this);
+        }
+    }
+
+    /**
+     * Back into the systems, e.g., on a hit, a collision or input.
+     */
+    public void wake() {
+        if (isAsleep) {
+            isAsleep = false;
+            SystemEngine.i().wakeEntity(this);
+        }
+    }
+
+    public boolean isAsleep() {
+        return isAsleep;
+    }
+
+    /**
+     * Every component has nothing left to do on its own.
+     */
+    public boolean isSettled() {
+        for (int i = 0; i < components.size(); ++i) {
+            if (!components.get(i).isSettled()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void setPool(GameObjectPool pool) {
+        this.pool = pool;
+    }
+
+    public GameObjectPool getPool() {
+        return pool;
     }
 
     public boolean isDestroyed() {
         return isDestroyed;
     }
 
+    /**
+     * Take this out of the game without destroying it, e.g., to go back to a GameObjectPool.
+     * - leaves the systems and every component unregisters itself, resources are kept
+     */
+    public void release() {
+        SystemEngine.i().removeEntity(this);
+
+        for (Component c: components) {
+            c.release();
+        }
+    }
+
+    /**
+     * Put this back to how it was built so it can be init() again.
+     */
+    public void recycle() {
+        isDestroyed = false;
+        isAsleep = false;
+
+        for (Component c: components) {
+            c.recycle();
+        }
+    }
+
     public void finalize() {
+        SystemEngine.i().removeEntity(this);
+
         for (Component c: components) {
             c.finalize();
         }
@@ -0,0 +1,81 @@
+package com.singaporetech.eod;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Pool of fully built GameObjects of one kind, e.g., bugs.
+ * - newObject() builds one with all its components but doesn't init() it
+ * - free() takes it out of the game with release() and puts it back as built with recycle(),
+ *   textures and atlases are kept for the next one
+ * - obtain() hands out a built object, place it and then init() it to join the game
+ */
+public abstract class GameObjectPool extends Pool<GameObject> {
+    private static final String TAG = "GameObjectPool";
+
+    // everything built by this pool, so clear() can finalize them all
+    private final Array<GameObject> built = new Array<GameObject>(false, 16);
+
+    public GameObjectPool(int initialCapacity, int max) {
+        super(initialCapacity, max);
+    }
+
+    /**
+     * Build a fresh object, components added but no init().
+     */
+    protected abstract GameObject build();
+
+    @Override
+    protected final GameObject newObject() {
+        GameObject go = build();
+        go.setPool(this);
+        built.add(go);
+        return go;
+    }
+
+    /**
+     * Build ahead of time up to a number of free objects, e.g., during the day before a wave.
+     * @param count free objects wanted
+     * @param maxBuilds most to build in this call, to spread the cost over frames
+     * @return number built
+     */
+    public int prewarm(int count, int maxBuilds) {
+        int builds = 0;
+        while (getFree() < count && getFree() < max && builds < maxBuilds) {
+            super.free(newObject());
+            ++builds;
+        }
+        return builds;
+    }
+
+    /**
+     * Objects past the pool's max are finalized instead of kept.
+     */
+    @Override
+    public void free(GameObject go) {
+        if (getFree() >= max) {
+            built.removeValue(go, true);
+            go.finalize();
+            return;
+        }
+        super.free(go);
+    }
+
+    @Override
+    protected void reset(GameObject go) {
+        go.release();
+        go.recycle();
+    }
+
+    /**
+     * Finalize everything this pool built, in use or not.
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        for (int i = 0; i < built.size; ++i) {
+            built.get(i).finalize();
+        }
+        built.clear();
+    }
+}
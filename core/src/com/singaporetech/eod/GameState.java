@@ -94,7 +94,7 @@ public class GameState {
     }
 
     public void setPlayerHealth(GameObject player) {
-        playerHealth = (Health) player.getComponent("Health");
+        playerHealth = player.getComponent(Health.class);
     }
 
     public boolean isServiceStarted() {
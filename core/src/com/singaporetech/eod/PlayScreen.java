@@ -1,22 +1,16 @@
 package com.singaporetech.eod;
 
 import com.badlogic.gdx.Screen;
-import com.singaporetech.eod.components.Combat;
-import com.singaporetech.eod.components.Health;
+import com.badlogic.gdx.math.Vector2;
 import com.singaporetech.eod.components.Input;
-import com.singaporetech.eod.components.Movement;
+import com.singaporetech.eod.components.MotionStore;
 import com.singaporetech.eod.components.SpawnMgr;
 import com.singaporetech.eod.components.Transform;
-import com.singaporetech.eod.components.ai.FsmPlayer;
-import com.singaporetech.eod.components.ai.SteeringArrive;
-import com.singaporetech.eod.components.ai.SteeringPursue;
-import com.singaporetech.eod.components.collision.Collider;
-import com.singaporetech.eod.components.render.PrimitiveHealthPlayer;
+import com.singaporetech.eod.components.ai.FlowField;
+import com.singaporetech.eod.components.ai.PathPlanner;
 import com.singaporetech.eod.components.render.Sprite;
-import com.singaporetech.eod.components.render.SpriteBam;
-import com.singaporetech.eod.components.render.SpriteInput;
-import com.singaporetech.eod.components.render.SpritePlusOne;
-import com.singaporetech.eod.components.render.SpriteSheetPlayer;
+import com.singaporetech.eod.systems.AiSystem;
+import com.singaporetech.eod.systems.Family;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -29,12 +23,23 @@ import java.util.List;
 public class PlayScreen implements Screen {
     private boolean paused = false;
 
+    // sim time not yet stepped, see gameLoop()
+    private float accumulator = 0;
+
+    // woken on touch
+    private static final Family INPUT_FAMILY = Family.all(Input.class);
+
     // game singletons
     GameState gameState = GameState.i();
 
     // game objects list
     protected List<GameObject> gameObjects;
 
+    // templates of the objects placed here, see assets/prefabs
+    private Prefab blockPrefab;
+    private Prefab playerPrefab;
+    private final Vector2 blockPos = new Vector2();
+
     /**
      * Ctor.
      */
@@ -46,30 +51,13 @@ public class PlayScreen implements Screen {
     }
 
     public void init() {
+        blockPrefab = Prefab.load("prefabs/block.json");
+        playerPrefab = Prefab.load("prefabs/player.json");
 
-        // init block
-        GameObject block = new GameObject("block1");
-        gameObjects.add(block);
-        block.addComponent(new com.singaporetech.eod.components.Transform(SETTINGS.BLOCK_POS_X, SETTINGS.BLOCK_POS_Y, 0));
-        block.addComponent(new com.singaporetech.eod.components.render.Sprite("sprites/block.png", SETTINGS.BLOCK_SIZE));
-        block.addComponent(new com.singaporetech.eod.components.collision.Collider());
-        block.init();
-
-        // init block
-        block = new GameObject("block2");
-        gameObjects.add(block);
-        block.addComponent(new com.singaporetech.eod.components.Transform(SETTINGS.BLOCK_POS_X+200, SETTINGS.BLOCK_POS_Y+300, 0));
-        block.addComponent(new com.singaporetech.eod.components.render.Sprite("sprites/block.png", 80));
-        block.addComponent(new com.singaporetech.eod.components.collision.Collider());
-        block.init();
-
-        // init block
-        block = new GameObject("block3");
-        gameObjects.add(block);
-        block.addComponent(new com.singaporetech.eod.components.Transform(SETTINGS.BLOCK_POS_X-200, SETTINGS.BLOCK_POS_Y+500, 0));
-        block.addComponent(new Sprite("sprites/block.png", 100));
-        block.addComponent(new com.singaporetech.eod.components.collision.Collider());
-        block.init();
+        // init blocks
+        addBlock("block1", SETTINGS.BLOCK_POS_X, SETTINGS.BLOCK_POS_Y, SETTINGS.BLOCK_SIZE);
+        addBlock("block2", SETTINGS.BLOCK_POS_X+200, SETTINGS.BLOCK_POS_Y+300, 80);
+        addBlock("block3", SETTINGS.BLOCK_POS_X-200, SETTINGS.BLOCK_POS_Y+500, 100);
 
         /**
          * Overview: Game Engines
@@ -79,24 +67,19 @@ public class PlayScreen implements Screen {
          * 1. The collider component.
          */
         // init human
-        GameObject player = new GameObject("player");
+        GameObject player = playerPrefab.instantiate("player", null);
         gameObjects.add(player);
-        player.addComponent(new Transform(SETTINGS.PLAYER_POS_X, SETTINGS.PLAYER_POS_Y, 0));
-        player.addComponent(new SpriteSheetPlayer("sprites/player.txt"));
-        player.addComponent(new Collider(false, false));
-        player.addComponent(new Movement());
-        player.addComponent(new SteeringArrive());
-        player.addComponent(new SteeringPursue(null));
-        player.addComponent(new FsmPlayer());
-        player.addComponent(new SpriteInput("sprites/x.png"));
-        player.addComponent(new com.singaporetech.eod.components.Input(Input.InputType.TOUCH));
-        player.addComponent(new SpritePlusOne("sprites/plus1.png"));
-        player.addComponent(new Health(0.5f));
-        player.addComponent(new PrimitiveHealthPlayer());
-        player.addComponent(new SpriteBam("sprites/bam.png"));
-        player.addComponent(new Combat(null, SETTINGS.PLAYER_DMG));
         player.init();
 
+        // the swarm paths to the player through one shared field
+        FlowField.i().setTarget(player);
+
+        // bugs far from the player think less often
+        AiSystem aiSystem = SystemEngine.i().getSystem(AiSystem.class);
+        if (aiSystem != null) {
+            aiSystem.setFocus(player);
+        }
+
         // give player handle to gameState so that sensors can be linked to player stats
         gameState.setPlayerHealth(player);
 
@@ -107,6 +90,14 @@ public class PlayScreen implements Screen {
         spawnMgr.init();
     }
 
+    private void addBlock(String name, float x, float y, int size) {
+        GameObject block = blockPrefab.instantiate(name, null);
+        gameObjects.add(block);
+        block.getComponent(Transform.class).setPos(blockPos.set(x, y));
+        block.getComponent(Sprite.class).setSize(size, size);
+        block.init();
+    }
+
     public void restart() {
         dispose();
 
@@ -115,23 +106,59 @@ public class PlayScreen implements Screen {
 
     /**
      * 1. The gameloop.
+     * - the sim runs in fixed steps of 1/SETTINGS.SIM_TICK_RATE so it behaves the same at any
+     *   frame rate, rendering blends between the last two steps
+     * - at most SETTINGS.SIM_MAX_STEPS a frame, a longer stall is dropped rather than caught up
      * @param dt
      */
     private void gameLoop(float dt) {
         if (!paused) {
-            // process game object updates
-            for (GameObject go: gameObjects) {
-                go.update(dt);
+            float step = 1f / SETTINGS.SIM_TICK_RATE;
+            accumulator += dt;
+            if (Input.pollTouch()) {
+                SystemEngine.i().wakeAll(INPUT_FAMILY);
+            }
+
+            int steps = 0;
+            while (accumulator >= step && steps < SETTINGS.SIM_MAX_STEPS) {
+                simStep(step);
+                accumulator -= step;
+                ++steps;
+            }
+            if (accumulator >= step) {
+                accumulator %= step;
+            }
+            if (steps > 0) {
+                Input.clearTouch();
             }
 
-            // process collisions
-            CollisionEngine.i().tick();
+            RenderEngine.i().setInterpolationAlpha(accumulator / step);
         }
 
         // process graphics
         RenderEngine.i().tick();
     }
 
+    private void simStep(float dt) {
+        // remember where everything was for the render interpolation
+        MotionStore.i().snapshot();
+
+        // shared navigation for everything chasing the player
+        FlowField.i().tick();
+
+        // time sliced path searches, e.g., for the player's moves
+        PathPlanner.i().tick();
+
+        // process game logic, one system at a time across all game objects
+        SystemEngine.i().tick(dt);
+
+        // process collisions
+        CollisionEngine.i().tick();
+
+        // take out whatever was destroyed this step
+        DestructionQueue.i().tick(dt);
+    }
+
     @Override
     public void render(float dt) {
         gameLoop(dt);
@@ -164,10 +191,17 @@ public class PlayScreen implements Screen {
 
     @Override
     public void dispose() {
+        DestructionQueue.i().clear();
+        FlowField.i().finalize();
+        PathPlanner.i().finalize();
         for (GameObject go: gameObjects) {
             go.finalize();
         }
         gameObjects.clear();
+
+        // shared textures go last, after everything drawing them
+        blockPrefab.dispose();
+        playerPrefab.dispose();
     }
 
     public List<GameObject> getGameObjects() {
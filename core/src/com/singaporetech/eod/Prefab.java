@@ -0,0 +1,407 @@
+package com.singaporetech.eod;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+import com.singaporetech.eod.components.Combat;
+import com.singaporetech.eod.components.Component;
+import com.singaporetech.eod.components.Health;
+import com.singaporetech.eod.components.Input;
+import com.singaporetech.eod.components.Movement;
+import com.singaporetech.eod.components.Transform;
+import com.singaporetech.eod.components.ai.BehaviorBug;
+import com.singaporetech.eod.components.ai.FsmBug;
+import com.singaporetech.eod.components.ai.FsmDef;
+import com.singaporetech.eod.components.ai.FsmPlayer;
+import com.singaporetech.eod.components.ai.SteeringArrive;
+import com.singaporetech.eod.components.ai.SteeringPath;
+import com.singaporetech.eod.components.ai.SteeringPursue;
+import com.singaporetech.eod.components.ai.btree.BugBlackboard;
+import com.singaporetech.eod.components.collision.Collider;
+import com.singaporetech.eod.components.collision.CollisionLayer;
+import com.singaporetech.eod.components.render.PrimitiveHealth;
+import com.singaporetech.eod.components.render.PrimitiveHealthPlayer;
+import com.singaporetech.eod.components.render.Sprite;
+import com.singaporetech.eod.components.render.SpriteBam;
+import com.singaporetech.eod.components.render.SpriteInput;
+import com.singaporetech.eod.components.render.SpritePlusOne;
+import com.singaporetech.eod.components.render.SpriteSheetBug;
+import com.singaporetech.eod.components.render.SpriteSheetPlayer;
+
+/**
+ * Template of a kind of GameObject, loaded from a JSON file under assets/prefabs.
+ * - lists the components in order with their params, e.g.,
+ *   {"type": "Movement", "speed": "SPEED_BUG"}
+ * - a param given as a string where a number or flag is expected names a SETTINGS constant,
+ *   layers are CollisionLayer names joined by |
+ * - params naming another object, e.g., a pursue target, are looked up in the refs passed to
+ *   instantiate()
+ * - fsms take the state machine file as "def" and behavior trees theirs as "tree", loaded once
+ *   and shared like the textures
+ * - params are resolved into one Factory per component when loaded, so instantiate() only
+ *   news up the components
+ * - textures and atlases are loaded once and shared by every instance, dispose() frees them
+ * - the first instance is wired up with addComponent(), the rest copy its type index and bits
+ */
+public class Prefab {
+    private static final String TAG = "Prefab";
+
+    private final String name;
+    private final Factory[] factories;
+
+    // shared by every instance
+    private final ObjectMap<String, Texture> textures = new ObjectMap<String, Texture>();
+    private final ObjectMap<String, TextureAtlas> atlases = new ObjectMap<String, TextureAtlas>();
+
+    // wiring of the first instance, null until then
+    private int[] typeSlots;
+    private final Bits componentBits = new Bits();
+    private int renderableSlot = -1;
+
+    public Prefab(JsonValue root) {
+        name = root.getString("name");
+
+        JsonValue list = root.get("components");
+        factories = new Factory[list.size];
+        int i = 0;
+        for (JsonValue c = list.child; c != null; c = c.next) {
+            factories[i++] = factoryOf(c);
+        }
+    }
+
+    /**
+     * @param path internal file, e.g., prefabs/bug.json
+     */
+    public static Prefab load(String path) {
+        return new Prefab(new JsonReader().parse(Gdx.files.internal(path)));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * New object with all the components, not init() yet so it can be placed first.
+     * @param name of the object
+     * @param refs objects the params can refer to by name, can be null if none do
+     */
+    public GameObject instantiate(String name, ObjectMap<String, GameObject> refs) {
+        Component[] list = new Component[factories.length];
+        for (int i = 0; i < factories.length; ++i) {
+            list[i] = factories[i].create(refs);
+        }
+
+        GameObject go = new GameObject(name);
+        if (typeSlots != null) {
+            go.addComponents(list, typeSlots, componentBits, renderableSlot);
+            return go;
+        }
+
+        // first one, remember the wiring for the rest
+        for (int i = 0; i < list.length; ++i) {
+            go.addComponent(list[i]);
+        }
+        typeSlots = go.getTypeSlots();
+        componentBits.or(go.getComponentBits());
+        for (int i = 0; i < list.length; ++i) {
+            if (list[i] == go.getRenderable()) {
+                renderableSlot = i;
+                break;
+            }
+        }
+        return go;
+    }
+
+    /**
+     * Free the shared textures, only once every instance is finalized.
+     */
+    public void dispose() {
+        for (Texture texture: textures.values()) {
+            texture.dispose();
+        }
+        textures.clear();
+        for (TextureAtlas atlas: atlases.values()) {
+            atlas.dispose();
+        }
+        atlases.clear();
+        for (Factory factory: factories) {
+            factory.texture = null;
+            factory.atlas = null;
+        }
+    }
+
+    /**
+     * One component of the prefab with its params already resolved.
+     * - the texture or atlas at path is fetched on the first create() and kept
+     */
+    private abstract class Factory {
+        private final String path;
+        private Texture texture;
+        private TextureAtlas atlas;
+
+        Factory() {
+            this(null);
+        }
+
+        Factory(String path) {
+            this.path = path;
+        }
+
+        Texture texture() {
+            if (texture == null) {
+                texture = getTexture(path);
+            }
+            return texture;
+        }
+
+        TextureAtlas atlas() {
+            if (atlas == null) {
+                atlas = getAtlas(path);
+            }
+            return atlas;
+        }
+
+        abstract Component create(ObjectMap<String, GameObject> refs);
+    }
+
+    private Factory factoryOf(JsonValue p) {
+        String type = p.getString("type");
+        switch (type) {
+            case "Transform": {
+                final int x = getInt(p, "x", 0), y = getInt(p, "y", 0), rot = getInt(p, "rot", 0);
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new Transform(x, y, rot);
+                    }
+                };
+            }
+            case "Movement": {
+                final boolean hasSpeed = p.has("speed");
+                final float speed = getFloat(p, "speed", 0);
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return hasSpeed ? new Movement(speed) : new Movement();
+                    }
+                };
+            }
+            case "Collider": {
+                final boolean isCollidable = getBoolean(p, "collidable", true);
+                final boolean isStatic = getBoolean(p, "static", true);
+                final int category = getLayers(p, "category", isStatic ? CollisionLayer.STATIC : CollisionLayer.ENEMY);
+                final int mask = getLayers(p, "mask", isStatic ? CollisionLayer.NONE : CollisionLayer.STATIC);
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new Collider(isCollidable, isStatic, category, mask);
+                    }
+                };
+            }
+            case "Health": {
+                final float hpScale = getFloat(p, "hpScale", 1);
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new Health(hpScale);
+                    }
+                };
+            }
+            case "Combat": {
+                final String target = p.getString("target", null);
+                final float dmg = getFloat(p, "dmg", 0);
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new Combat(getRef("target", target, refs), dmg);
+                    }
+                };
+            }
+            case "Input": {
+                final Input.InputType input = Input.InputType.valueOf(p.getString("input", "TOUCH"));
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new Input(input);
+                    }
+                };
+            }
+            case "SteeringArrive":
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new SteeringArrive();
+                    }
+                };
+            case "SteeringPath":
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new SteeringPath();
+                    }
+                };
+            case "SteeringPursue": {
+                final String target = p.getString("target", null);
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new SteeringPursue(getRef("target", target, refs));
+                    }
+                };
+            }
+            case "FsmBug": {
+                final FsmDef def = p.has("def") ? FsmDef.get(p.getString("def")) : null;
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return def != null ? new FsmBug(def) : new FsmBug();
+                    }
+                };
+            }
+            case "BehaviorBug": {
+                final BehaviorTree<BugBlackboard> tree = p.has("tree") ? BehaviorBug.getTree(p.getString("tree")) : null;
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return tree != null ? new BehaviorBug(tree) : new BehaviorBug();
+                    }
+                };
+            }
+            case "FsmPlayer": {
+                final FsmDef def = p.has("def") ? FsmDef.get(p.getString("def")) : null;
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return def != null ? new FsmPlayer(def) : new FsmPlayer();
+                    }
+                };
+            }
+            case "Sprite": {
+                final int size = getInt(p, "size", SETTINGS.SPRITE_WIDTH);
+                return new Factory(p.getString("path")) {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new Sprite(texture(), size);
+                    }
+                };
+            }
+            case "SpriteBam":
+                return new Factory(p.getString("path")) {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new SpriteBam(texture());
+                    }
+                };
+            case "SpritePlusOne":
+                return new Factory(p.getString("path")) {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new SpritePlusOne(texture());
+                    }
+                };
+            case "SpriteInput":
+                return new Factory(p.getString("path")) {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new SpriteInput(texture());
+                    }
+                };
+            case "SpriteSheetBug":
+                return new Factory(p.getString("path")) {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new SpriteSheetBug(atlas());
+                    }
+                };
+            case "SpriteSheetPlayer":
+                return new Factory(p.getString("path")) {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new SpriteSheetPlayer(atlas());
+                    }
+                };
+            case "PrimitiveHealth":
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new PrimitiveHealth();
+                    }
+                };
+            case "PrimitiveHealthPlayer":
+                return new Factory() {
+                    Component create(ObjectMap<String, GameObject> refs) {
+                        return new PrimitiveHealthPlayer();
+                    }
+                };
+            default:
+                throw new GdxRuntimeException(name + ": unknown component type " + type);
+        }
+    }
+
+    private Texture getTexture(String path) {
+        Texture texture = textures.get(path);
+        if (texture == null) {
+            texture = new Texture(path);
+            textures.put(path, texture);
+        }
+        return texture;
+    }
+
+    private TextureAtlas getAtlas(String path) {
+        TextureAtlas atlas = atlases.get(path);
+        if (atlas == null) {
+            atlas = new TextureAtlas(path);
+            atlases.put(path, atlas);
+        }
+        return atlas;
+    }
+
+    private GameObject getRef(String key, String ref, ObjectMap<String, GameObject> refs) {
+        if (ref == null) {
+            return null;
+        }
+        GameObject go = refs == null ? null : refs.get(ref);
+        if (go == null) {
+            throw new GdxRuntimeException(name + ": no object given for " + key + " " + ref);
+        }
+        return go;
+    }
+
+    private static float getFloat(JsonValue p, String key, float defaultValue) {
+        JsonValue v = p.get(key);
+        if (v == null) {
+            return defaultValue;
+        }
+        return v.isString() ? ((Number) getSetting(v.asString())).floatValue() : v.asFloat();
+    }
+
+    private static int getInt(JsonValue p, String key, int defaultValue) {
+        JsonValue v = p.get(key);
+        if (v == null) {
+            return defaultValue;
+        }
+        return v.isString() ? ((Number) getSetting(v.asString())).intValue() : v.asInt();
+    }
+
+    private static boolean getBoolean(JsonValue p, String key, boolean defaultValue) {
+        JsonValue v = p.get(key);
+        if (v == null) {
+            return defaultValue;
+        }
+        return v.isString() ? (Boolean) getSetting(v.asString()) : v.asBoolean();
+    }
+
+    private static int getLayers(JsonValue p, String key, int defaultValue) {
+        String layers = p.getString(key, null);
+        if (layers == null) {
+            return defaultValue;
+        }
+        int bits = 0;
+        for (String layer: layers.split("\\|")) {
+            bits |= (Integer) getConstant(CollisionLayer.class, layer.trim());
+        }
+        return bits;
+    }
+
+    private static Object getSetting(String constant) {
+        return getConstant(SETTINGS.class, constant);
+    }
+
+    private static Object getConstant(Class<?> type, String constant) {
+        try {
+            return ClassReflection.getField(type, constant).get(null);
+        }
+        catch (ReflectionException e) {
+            throw new GdxRuntimeException("no constant " + constant + " in " + type.getSimpleName(), e);
+        }
+    }
+}
@@ -11,17 +11,15 @@ import com.badlogic.gdx.utils.viewport.Viewport;
 import com.singaporetech.eod.components.render.Renderable;
 import com.singaporetech.eod.components.render.RenderableDebug;
 
-import java.util.LinkedList;
-import java.util.List;
-
 /**
  * Created by chek on 19/1/17.
  * NOTE THAT THIS IS LEGACY CODE THAT HAS NO PROPER COMMENTS
  */
 
 public class RenderEngine implements Engine{
-    private List<com.singaporetech.eod.components.render.Renderable> renderables = new LinkedList<com.singaporetech.eod.components.render.Renderable>();
-    private List<com.singaporetech.eod.components.render.RenderableDebug> renderableDebugs = new LinkedList<com.singaporetech.eod.components.render.RenderableDebug>();
+    // registries, components keep the handle from add*() to remove themselves
+    private SlotMap<Renderable> renderables = new SlotMap<Renderable>();
+    private SlotMap<RenderableDebug> renderableDebugs = new SlotMap<RenderableDebug>();
 
     private static RenderEngine instance = new RenderEngine();
     public static RenderEngine i(){
@@ -37,6 +35,9 @@ public class RenderEngine implements Engine{
     // debug renderer
     protected ShapeRenderer shapeRenderer;
 
+    // how far between the last sim step and the next this frame is drawn, see PlayScreen
+    private float interpolationAlpha = 1;
+
     @Override
     public void init() {
         // create sprite drawer
@@ -68,15 +69,15 @@ public class RenderEngine implements Engine{
         // draw all game objects
         spriteBatch.setProjectionMatrix(cam.combined);
         spriteBatch.begin();
-        for (com.singaporetech.eod.components.render.Renderable r: renderables) {
-            r.draw();
+        for (int i = 0; i < renderables.size(); ++i) {
+            renderables.getAt(i).draw();
         }
         spriteBatch.end();
 
         // draw debug graphics
         shapeRenderer.setProjectionMatrix(cam.combined);
-        for (com.singaporetech.eod.components.render.RenderableDebug r: renderableDebugs) {
-            r.draw();
+        for (int i = 0; i < renderableDebugs.size(); ++i) {
+            renderableDebugs.getAt(i).draw();
         }
 
         // draw hud
@@ -84,18 +85,36 @@ public class RenderEngine implements Engine{
         hud.draw();
     }
 
-    public void addRenderable(com.singaporetech.eod.components.render.Renderable r) {
-        renderables.add(r);
+    /**
+     * @param r
+     * @return handle to remove it with
+     */
+    public long addRenderable(Renderable r) {
+        return renderables.add(r);
+    }
+
+    /**
+     * @param handle from addRenderable()
+     * @return false if it was already removed
+     */
+    public boolean removeRenderable(long handle) {
+        return renderables.remove(handle) != null;
     }
-    public void removeRenderable(Renderable r) {
-        renderables.remove(r);
+
+    public long addRenderableDebug(RenderableDebug r) {
+        return renderableDebugs.add(r);
+    }
+
+    public boolean removeRenderableDebug(long handle) {
+        return renderableDebugs.remove(handle) != null;
     }
 
-    public void addRenderableDebug(com.singaporetech.eod.components.render.RenderableDebug r) {
-        renderableDebugs.add(r);
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
     }
-    public void removeRenderableDebug(RenderableDebug r) {
-        renderableDebugs.remove(r);
+
+    public void setInterpolationAlpha(float interpolationAlpha) {
+        this.interpolationAlpha = interpolationAlpha;
     }
 
     public void setCam (Camera cam) {
@@ -1,5 +1,7 @@
 package com.singaporetech.eod;
 
+import com.singaporetech.eod.components.collision.BroadPhase;
+
 /**
  * Created by mrchek on 17/1/17.
  * NOTE THAT THIS IS LEGACY CODE THAT HAS NO PROPER COMMENTS
@@ -39,6 +41,8 @@ public final class SETTINGS {
     public static final int BUG_POS_X = 400;
     public static final int BUG_POS_Y = 100;
     public static final int BUG_POS_JITTER_X = 80;
+    public static final int BUG_POOL_MAX = 64;
+    public static final int BUG_PREWARM_PER_FRAME = 1;
     public static final int HEALTHBAR_OFFSET_X = -SPRITE_WIDTH/2;
     public static final int HEALTHBAR_OFFSET_Y = SPRITE_HEIGHT/2 + 10;
     public static final int HEALTHBAR_PLAYER_X = 80;
@@ -62,9 +66,50 @@ public final class SETTINGS {
     public static final float COLLISION_FORCE = 100000.0f;
     public static final float COLLISION_VEC_OFFSET_DEG = 50.0f;
     public static final float COLLISION_TARGET_OFFSET = SPRITE_WIDTH + 30.0f;
+    public static final float COLLISION_MIN_CELL_SIZE = 32.0f;
+    public static BroadPhase.Type BROADPHASE = BroadPhase.Type.GRID;
+    public static final boolean BUG_VS_BUG = false;
+    public static CollisionEngine.CcdMode CCD_MODE = CollisionEngine.CcdMode.SWEEP;
+    public static final float CCD_SKIN = 0.5f;
+    public static CollisionEngine.Backend COLLISION_BACKEND = CollisionEngine.Backend.JAVA;
+    public static final float BOX2D_PPM = 100.0f;
+    public static final float BOX2D_STEP = 1/60f;
+    public static final float BOX2D_SLEEP_EPSILON = 0.001f;
+    public static final float BOX2D_FAN_SLOP = 5.0f;
+    public static final float KNN_START_RADIUS = SPRITE_WIDTH * 2;
+    public static final float KNN_MAX_RADIUS = VIEWPORT_HEIGHT * 2;
+
+    public static boolean FLOW_FIELD = true;
+    public static final float NAV_CELL_SIZE = 40.0f;
+    public static final float NAV_CLEARANCE = SPRITE_HEIGHT / 2;
+    public static final int NAV_GOAL_RINGS = 3;
+    public static final long PATH_SLICE_NANOS = 500000L;
+    public static final int PATH_MAX_NODES = 2000;
+    public static final int PATH_CACHE_SIZE = 16;
+    public static final float PATH_WAYPOINT_RADIUS = NAV_CELL_SIZE;
+
+    public static boolean AI_LOD = true;
+    public static final float AI_LOD_NEAR = 300.0f;
+    public static final float AI_LOD_FAR = 700.0f;
+    public static final float AI_LOD_MID_HZ = 15.0f;
+    public static final float AI_LOD_FAR_HZ = 4.0f;
+    public static final long AI_BUDGET_NANOS = 1000000L;
+    public static boolean FSM_LOG = false;
+    public static boolean BUG_BEHAVIOR_TREE = false;
+
+    public static int SIM_TICK_RATE = 60;
+    public static final int SIM_MAX_STEPS = 5;
+
+    public static boolean SLEEPING = true;
+    public static final float SLEEP_DELAY = 0.5f;
+
+    public static boolean PARALLEL_SYSTEMS = true;
+    public static final int WORKER_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int PARALLEL_MIN_BATCH = 64;
 
     public static final float ANIM_FRAME_TIME = 0.12f;
     public static final float GC_DURATION = 10f;
+    public static final float DESTRUCT_DELAY = ANIM_FRAME_TIME * 2;
     public static final float X_FADEOUT_DECREMENT = 1.5f;
     public static final float PLUSONE_FADEOUT_DECREMENT = 0.8f;
     public static final float ATTACK_DELAY_TIME = 0.6f;
@@ -0,0 +1,173 @@
+package com.singaporetech.eod;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Dense array of items with stable handles, for the engines' registries.
+ * - add, remove and get by handle are O(1), iteration is over a packed array with getAt()
+ * - removal swaps the last item into the hole, so iteration order isn't kept
+ * - a handle is the slot index plus the slot's generation, bumped on every removal, so a
+ *   handle kept after its item is gone is detected instead of hitting whatever took the slot
+ * - NONE is never a valid handle, use it as the "not registered" value
+ */
+public class SlotMap<T> {
+    private static final String TAG = "SlotMap";
+
+    public static final long NONE = 0;
+
+    // packed items and the slot each one sits in
+    private Object[] items;
+    private int[] denseToSlot;
+    private int size = 0;
+
+    // per slot
+    private int[] slotToDense;
+    private int[] generations;
+    private int numSlots = 0;
+    private IntArray freeSlots = new IntArray();
+
+    public SlotMap() {
+        this(64);
+    }
+
+    public SlotMap(int capacity) {
+        items = new Object[capacity];
+        denseToSlot = new int[capacity];
+        slotToDense = new int[capacity];
+        generations = new int[capacity];
+    }
+
+    public long add(T item) {
+        int slot;
+        if (freeSlots.size > 0) {
+            slot = freeSlots.pop();
+        }
+        else {
+            if (numSlots == slotToDense.length) {
+                growSlots();
+            }
+            slot = numSlots++;
+            generations[slot] = 1;
+        }
+        if (size == items.length) {
+            growItems();
+        }
+
+        items[size] = item;
+        denseToSlot[size] = slot;
+        slotToDense[slot] = size;
+        ++size;
+        return toHandle(slot, generations[slot]);
+    }
+
+    /**
+     * @param handle
+     * @return the removed item, or null if the handle is stale or NONE
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(long handle) {
+        if (!isValid(handle)) {
+            return null;
+        }
+        int slot = (int) handle;
+        int dense = slotToDense[slot];
+        T item = (T) items[dense];
+
+        // fill the hole with the last item
+        --size;
+        if (dense != size) {
+            items[dense] = items[size];
+            denseToSlot[dense] = denseToSlot[size];
+            slotToDense[denseToSlot[dense]] = dense;
+        }
+        items[size] = null;
+
+        retire(slot);
+        return item;
+    }
+
+    /**
+     * @param handle
+     * @return the item, or null if the handle is stale or NONE
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long handle) {
+        return isValid(handle) ? (T) items[slotToDense[(int) handle]] : null;
+    }
+
+    public boolean isValid(long handle) {
+        int slot = (int) handle;
+        int generation = (int) (handle >>> 32);
+        return slot >= 0 && slot < numSlots && generation != 0 && generations[slot] == generation;
+    }
+
+    /**
+     * Handle of an item by scanning for it, prefer keeping the handle from add().
+     * @param item
+     * @return handle, or NONE if not in here
+     */
+    public long handleOf(T item) {
+        for (int i = 0; i < size; ++i) {
+            if (items[i] == item) {
+                int slot = denseToSlot[i];
+                return toHandle(slot, generations[slot]);
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Item at a packed index, for iterating [0, size()).
+     */
+    @SuppressWarnings("unchecked")
+    public T getAt(int i) {
+        return (T) items[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove everything, every outstanding handle goes stale.
+     */
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            items[i] = null;
+            retire(denseToSlot[i]);
+        }
+        size = 0;
+    }
+
+    private void retire(int slot) {
+        // skip 0 on wrap around so NONE stays invalid
+        if (++generations[slot] == 0) {
+            generations[slot] = 1;
+        }
+        freeSlots.add(slot);
+    }
+
+    private static long toHandle(int slot, int generation) {
+        return ((long) generation << 32) | (slot & 0xffffffffL);
+    }
+
+    private void growItems() {
+        int capacity = items.length * 2;
+        Object[] newItems = new Object[capacity];
+        System.arraycopy(items, 0, newItems, 0, size);
+        items = newItems;
+        int[] newDenseToSlot = new int[capacity];
+        System.arraycopy(denseToSlot, 0, newDenseToSlot, 0, size);
+        denseToSlot = newDenseToSlot;
+    }
+
+    private void growSlots() {
+        int capacity = slotToDense.length * 2;
+        int[] newSlotToDense = new int[capacity];
+        System.arraycopy(slotToDense, 0, newSlotToDense, 0, numSlots);
+        slotToDense = newSlotToDense;
+        int[] newGenerations = new int[capacity];
+        System.arraycopy(generations, 0, newGenerations, 0, numSlots);
+        generations = newGenerations;
+    }
+}
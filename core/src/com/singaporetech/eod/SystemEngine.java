@@ -0,0 +1,358 @@
+package com.singaporetech.eod;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.singaporetech.eod.components.Combat;
+import com.singaporetech.eod.components.Component;
+import com.singaporetech.eod.components.Health;
+import com.singaporetech.eod.components.Input;
+import com.singaporetech.eod.components.SpawnMgr;
+import com.singaporetech.eod.components.Transform;
+import com.singaporetech.eod.components.ai.Brain;
+import com.singaporetech.eod.components.collision.Collider;
+import com.singaporetech.eod.components.render.Primitive;
+import com.singaporetech.eod.components.render.Sprite;
+import com.singaporetech.eod.components.render.SpriteSheet;
+import com.singaporetech.eod.systems.AiSystem;
+import com.singaporetech.eod.systems.ComponentUpdateSystem;
+import com.singaporetech.eod.systems.EntitySystem;
+import com.singaporetech.eod.systems.Family;
+import com.singaporetech.eod.systems.HealthSystem;
+import com.singaporetech.eod.systems.MovementSystem;
+import com.singaporetech.eod.systems.SleepSystem;
+import com.singaporetech.eod.systems.SystemScheduler;
+
+/**
+ * Runs the game logic one system at a time across all entities, instead of object by object.
+ * - GameObjects join when they are init() and leave when they are finalize()
+ * - each distinct Family gets one cached entity list, kept up to date on add/remove
+ * - adds/removes made while a system is running (e.g., spawning) are applied once it is done
+ * - with SETTINGS.PARALLEL_SYSTEMS, systems that don't conflict run together on a SystemScheduler,
+ *   pending adds/removes are then applied after each stage
+ * - sleeping entities leave every family and system until woken, see SleepSystem
+ */
+public class SystemEngine implements Engine {
+    private static final String TAG = "SystemEngine";
+
+    private Array<EntitySystem> systems = new Array<EntitySystem>();
+    private ObjectMap<Family, Array<GameObject>> families = new ObjectMap<Family, Array<GameObject>>();
+    private Array<GameObject> entities = new Array<GameObject>(false, 64);
+
+    // asleep, out of every family list and system until woken
+    private Array<GameObject> sleeping = new Array<GameObject>(false, 64);
+
+    // deferred while a system is running, applied in the order they were asked for
+    private static final int ADD = 0, REMOVE = 1, SLEEP = 2, WAKE = 3, ACTIVITY = 4;
+    private boolean isUpdating = false;
+    private IntArray pendingOps = new IntArray(true, 16);
+    private Array<Object> pendingTargets = new Array<Object>(true, 16);
+
+    // null when running serially, stages rebuilt when the systems change
+    private SystemScheduler scheduler;
+    private boolean isStagesDirty = true;
+
+    private static SystemEngine instance = new SystemEngine();
+    public static SystemEngine i(){
+        return instance;
+    }
+    private SystemEngine() {}
+
+    /**
+     * The game's systems, in the order they run.
+     * - input and AI first, then movement, then everything that reacts to where things ended up
+     * - spawning, input, AI and combat reach into the engines and other entities so they declare
+     *   nothing and run alone, colliders share the broadphase so they run together but unsplit
+     * - split systems only touch their own entity, anything reaching an engine (e.g., destroying
+     *   an expired Health) is done in afterUpdate() on the main thread
+     */
+    @Override
+    public void init() {
+        if (systems.size > 0) {
+            return;
+        }
+        addSystem(new ComponentUpdateSystem<SpawnMgr>(SpawnMgr.class));
+        addSystem(new ComponentUpdateSystem<Input>(Input.class));
+        if (SETTINGS.AI_LOD) {
+            addSystem(new AiSystem());
+        }
+        else {
+            addSystem(new ComponentUpdateSystem<Brain>(Brain.class));
+        }
+        addSystem(new MovementSystem());
+        addSystem(new ComponentUpdateSystem<Collider>(Collider.class)
+                .reads(Transform.class).writes(Collider.class));
+        addSystem(new ComponentUpdateSystem<Combat>(Combat.class));
+        addSystem(new HealthSystem()
+                .reads(Transform.class, Primitive.class).writes(Health.class, Sprite.class).split());
+        addSystem(new ComponentUpdateSystem<SpriteSheet>(SpriteSheet.class)
+                .reads(Transform.class).writes(SpriteSheet.class).split());
+        addSystem(new ComponentUpdateSystem<Sprite>(Sprite.class)
+                .reads(Transform.class).writes(Sprite.class).split());
+        if (SETTINGS.SLEEPING) {
+            addSystem(new SleepSystem());
+        }
+
+        if (SETTINGS.PARALLEL_SYSTEMS && scheduler == null) {
+            scheduler = new SystemScheduler(SETTINGS.WORKER_THREADS, SETTINGS.PARALLEL_MIN_BATCH);
+        }
+    }
+
+    @Override
+    public void tick() {
+        tick(Gdx.graphics.getDeltaTime());
+    }
+
+    public void tick(float dt) {
+        if (scheduler != null) {
+            tickStages(dt);
+            return;
+        }
+
+        for (int i = 0; i < systems.size; ++i) {
+            EntitySystem system = systems.get(i);
+            if (!system.isActive()) {
+                continue;
+            }
+
+            isUpdating = true;
+            system.update(dt);
+            system.afterUpdate();
+            isUpdating = false;
+
+            applyPending();
+        }
+    }
+
+    private void tickStages(float dt) {
+        if (isStagesDirty) {
+            scheduler.build(systems);
+            isStagesDirty = false;
+        }
+
+        for (int i = 0; i < scheduler.getStageCount(); ++i) {
+            isUpdating = true;
+            scheduler.runStage(i, dt);
+            isUpdating = false;
+
+            applyPending();
+        }
+    }
+
+    public void addSystem(EntitySystem system) {
+        systems.add(system);
+        isStagesDirty = true;
+        system.addedToEngine(getEntities(system.getFamily()));
+        for (int i = 0; i < entities.size; ++i) {
+            GameObject go = entities.get(i);
+            if (system.getFamily().matches(go)) {
+                system.entityAdded(go);
+            }
+        }
+    }
+
+    /**
+     * Cached list of entities in a family, created and filled on first ask.
+     * @param family
+     * @return shared list, don't modify
+     */
+    public Array<GameObject> getEntities(Family family) {
+        Array<GameObject> members = families.get(family);
+        if (members == null) {
+            members = new Array<GameObject>(false, 64);
+            for (int i = 0; i < entities.size; ++i) {
+                if (family.matches(entities.get(i))) {
+                    members.add(entities.get(i));
+                }
+            }
+            families.put(family, members);
+        }
+        return members;
+    }
+
+    /**
+     * @return the first system of the type, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends EntitySystem> T getSystem(Class<T> type) {
+        for (int i = 0; i < systems.size; ++i) {
+            if (type.isInstance(systems.get(i))) {
+                return (T) systems.get(i);
+            }
+        }
+        return null;
+    }
+
+    public void addEntity(GameObject go) {
+        if (defer(ADD, go)) {
+            return;
+        }
+        if (entities.contains(go, true) || sleeping.contains(go, true)) {
+            return;
+        }
+
+        join(go);
+    }
+
+    public void removeEntity(GameObject go) {
+        if (defer(REMOVE, go)) {
+            return;
+        }
+        if (sleeping.removeValue(go, true)) {
+            return;
+        }
+
+        if (entities.removeValue(go, true)) {
+            leave(go);
+        }
+    }
+
+    /**
+     * Take an entity out of every family and system until wakeEntity(), see GameObject.sleep().
+     * @param go
+     */
+    public void sleepEntity(GameObject go) {
+        if (defer(SLEEP, go)) {
+            return;
+        }
+
+        if (entities.removeValue(go, true)) {
+            leave(go);
+            sleeping.add(go);
+        }
+    }
+
+    public void wakeEntity(GameObject go) {
+        if (defer(WAKE, go)) {
+            return;
+        }
+
+        if (sleeping.removeValue(go, true)) {
+            join(go);
+        }
+    }
+
+    /**
+     * Wake every sleeping entity in a family, e.g., everything with an Input on a tap.
+     * @param family
+     */
+    public void wakeAll(Family family) {
+        for (int i = sleeping.size - 1; i >= 0; --i) {
+            GameObject go = sleeping.get(i);
+            if (family.matches(go)) {
+                go.wake();
+            }
+        }
+    }
+
+    /**
+     * A component was enabled or disabled, systems only keep the active ones.
+     * @param c
+     */
+    public void componentActivityChanged(Component c) {
+        if (defer(ACTIVITY, c)) {
+            return;
+        }
+
+        // sleeping or not joined yet, the right components are picked up when it joins
+        GameObject go = c.getOwner();
+        if (go.isAsleep() || !entities.contains(go, true)) {
+            return;
+        }
+        for (int i = 0; i < systems.size; ++i) {
+            EntitySystem system = systems.get(i);
+            if (system.getFamily().matches(go)) {
+                system.componentActivityChanged(c);
+            }
+        }
+    }
+
+    public int getEntityCount() {
+        return entities.size;
+    }
+
+    public int getSleepingCount() {
+        return sleeping.size;
+    }
+
+    private void join(GameObject go) {
+        entities.add(go);
+        for (ObjectMap.Entry<Family, Array<GameObject>> e : families.entries()) {
+            if (e.key.matches(go)) {
+                e.value.add(go);
+            }
+        }
+        for (int i = 0; i < systems.size; ++i) {
+            EntitySystem system = systems.get(i);
+            if (system.getFamily().matches(go)) {
+                system.entityAdded(go);
+            }
+        }
+    }
+
+    private void leave(GameObject go) {
+        for (Array<GameObject> members : families.values()) {
+            members.removeValue(go, true);
+        }
+        for (int i = 0; i < systems.size; ++i) {
+            EntitySystem system = systems.get(i);
+            if (system.getFamily().matches(go)) {
+                system.entityRemoved(go);
+            }
+        }
+    }
+
+    private boolean defer(int op, Object target) {
+        if (!isUpdating) {
+            return false;
+        }
+        pendingOps.add(op);
+        pendingTargets.add(target);
+        return true;
+    }
+
+    private void applyPending() {
+        for (int i = 0; i < pendingOps.size; ++i) {
+            Object target = pendingTargets.get(i);
+            switch (pendingOps.get(i)) {
+                case ADD:
+                    addEntity((GameObject) target);
+                    break;
+                case REMOVE:
+                    removeEntity((GameObject) target);
+                    break;
+                case SLEEP:
+                    sleepEntity((GameObject) target);
+                    break;
+                case WAKE:
+                    wakeEntity((GameObject) target);
+                    break;
+                case ACTIVITY:
+                    componentActivityChanged((Component) target);
+                    break;
+            }
+        }
+        pendingOps.clear();
+        pendingTargets.clear();
+    }
+
+    public void clearEntities() {
+        while (entities.size > 0) {
+            removeEntity(entities.peek());
+        }
+        sleeping.clear();
+        pendingOps.clear();
+        pendingTargets.clear();
+    }
+
+    @Override
+    public void finalize() {
+        clearEntities();
+
+        if (scheduler != null) {
+            scheduler.dispose();
+            scheduler = null;
+        }
+    }
+}
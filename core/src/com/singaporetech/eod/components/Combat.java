@@ -12,13 +12,15 @@ import com.singaporetech.eod.components.render.SpriteSheet;
  */
 
 public class Combat extends Component{
-    private String TAG = "Combat:C";
+    private static final String BASE_TAG = "Combat:C";
+    private String TAG = BASE_TAG;
 
     Transform transform;
     com.singaporetech.eod.components.render.SpriteSheet spriteSheet;
     com.singaporetech.eod.components.render.SpriteBam spriteBam;
 
     com.singaporetech.eod.GameObject targetGO;
+    com.singaporetech.eod.GameObject startTargetGO;
     Health targetHealth;
     Transform targetTransform;
 
@@ -29,22 +31,22 @@ public class Combat extends Component{
     public Combat(com.singaporetech.eod.GameObject targetGO, float dmg) {
         super("Combat");
 
-        this.targetGO = targetGO;
+        this.targetGO = startTargetGO = targetGO;
         this.dmg = dmg;
     }
 
     @Override
     public void init(com.singaporetech.eod.GameObject owner) {
         super.init(owner);
-        TAG += ":" + owner.getName();
+        TAG = BASE_TAG + ":" + owner.getName();
 
-        transform = (Transform) owner.getComponent("Transform");
-        spriteSheet = (SpriteSheet) owner.getComponent("SpriteSheet");
-        spriteBam = (SpriteBam) owner.getComponent("SpriteBam");
+        transform = owner.getComponent(Transform.class);
+        spriteSheet = owner.getComponent(SpriteSheet.class);
+        spriteBam = owner.getComponent(SpriteBam.class);
 
         if (targetGO != null) {
-            targetTransform = (Transform) targetGO.getComponent("Transform");
-            targetHealth = (Health) targetGO.getComponent("Health");
+            targetTransform = targetGO.getComponent(Transform.class);
+            targetHealth = targetGO.getComponent(Health.class);
         }
 
         disable();
@@ -83,10 +85,25 @@ public class Combat extends Component{
         }
     }
 
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        targetGO = startTargetGO;
+        targetTransform = null;
+        targetHealth = null;
+        timeElapsed = 0;
+    }
+
+    @Override
+    public boolean isSettled() {
+        return !isActive;
+    }
+
     public void setTarget(GameObject targetGO) {
         this.targetGO = targetGO;
-        targetTransform = (Transform) targetGO.getComponent("Transform");
-        targetHealth = (Health) targetGO.getComponent("Health");
+        targetTransform = targetGO.getComponent(Transform.class);
+        targetHealth = targetGO.getComponent(Health.class);
     }
 
     public boolean isTargetDestroyed() {
@@ -1,6 +1,7 @@
 package com.singaporetech.eod.components;
 
 import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.SystemEngine;
 
 /**
  * Created by mrchek on 19/1/17.
@@ -19,12 +20,29 @@ public abstract class Component {
         return name;
     }
 
+    /**
+     * Disabled components are dropped from the systems' update lists rather than skipped.
+     */
     public void enable() {
-        isActive = true;
+        if (!isActive) {
+            isActive = true;
+            notifyActivityChanged();
+        }
     }
 
     public void disable() {
-        isActive = false;
+        if (isActive) {
+            isActive = false;
+            notifyActivityChanged();
+        }
+    }
+
+    public boolean isActive() {
+        return isActive;
+    }
+
+    public GameObject getOwner() {
+        return owner;
     }
 
     public void init(GameObject owner) {
@@ -33,6 +51,33 @@ public abstract class Component {
 
     public void update (float dt) {}
 
+    /**
+     * Whether this has nothing left to do on its own, e.g., no timers running or animations
+     * playing, once every component of an entity is settled for a while the entity can sleep.
+     */
+    public boolean isSettled() {
+        return true;
+    }
+
+    /**
+     * Pooling: the owner is leaving the game to be reused later.
+     * - undo whatever init() registered with the engines, but keep resources like textures
+     */
+    public void release() {}
+
+    /**
+     * Pooling: put the state back to how it was just after construction, init() runs again after.
+     */
+    public void recycle() {
+        isActive = true;
+    }
+
+    private void notifyActivityChanged() {
+        if (owner != null) {
+            SystemEngine.i().componentActivityChanged(this);
+        }
+    }
+
     public void finalize() {
 
     }
@@ -0,0 +1,71 @@
+package com.singaporetech.eod.components;
+
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Registry handing out a small dense id per component class.
+ * - GameObjects index their components by these ids, so lookups are an array access
+ * - a component also fills the slots of its superclasses, e.g., a SpriteSheetBug can be
+ *   found as a SpriteSheet
+ */
+public final class ComponentType {
+    private static final ObjectIntMap<Class<? extends Component>> ids = new ObjectIntMap<Class<? extends Component>>();
+    private static final ObjectMap<Class<? extends Component>, int[]> lineages = new ObjectMap<Class<? extends Component>, int[]>();
+    private static int nextId = 0;
+
+    private ComponentType() {}
+
+    /**
+     * @param type
+     * @return the id for the class, registering it on first use
+     */
+    public static int getId(Class<? extends Component> type) {
+        int id = ids.get(type, -1);
+        if (id < 0) {
+            id = nextId++;
+            ids.put(type, id);
+        }
+        return id;
+    }
+
+    /**
+     * Ids of the class followed by its superclasses up to (not including) Component.
+     * @param type
+     * @return shared array, don't modify
+     */
+    @SuppressWarnings("unchecked")
+    public static int[] getLineage(Class<? extends Component> type) {
+        int[] lineage = lineages.get(type);
+        if (lineage == null) {
+            int depth = 0;
+            for (Class<?> c = type; c != Component.class; c = c.getSuperclass()) {
+                ++depth;
+            }
+            lineage = new int[depth];
+            int i = 0;
+            for (Class<?> c = type; c != Component.class; c = c.getSuperclass()) {
+                lineage[i++] = getId((Class<? extends Component>) c);
+            }
+            lineages.put(type, lineage);
+        }
+        return lineage;
+    }
+
+    /**
+     * Mask with the bits of all the given types set.
+     */
+    @SafeVarargs
+    public static Bits getBits(Class<? extends Component>... types) {
+        Bits bits = new Bits();
+        for (Class<? extends Component> type : types) {
+            bits.set(getId(type));
+        }
+        return bits;
+    }
+
+    public static int size() {
+        return nextId;
+    }
+}
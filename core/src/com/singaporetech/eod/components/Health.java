@@ -2,6 +2,8 @@ package com.singaporetech.eod.components;
 
 import com.singaporetech.eod.GameObject;
 import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.components.ai.Fsm;
+import com.singaporetech.eod.components.ai.FsmDef;
 import com.singaporetech.eod.components.render.PrimitiveHealth;
 import com.singaporetech.eod.components.render.SpritePlusOne;
 
@@ -16,14 +18,18 @@ public class Health extends Component {
     protected com.singaporetech.eod.components.Transform transform;
     protected com.singaporetech.eod.components.render.PrimitiveHealth primitiveHealth;
     protected com.singaporetech.eod.components.render.SpritePlusOne spritePlusOne;
+    // told when hp runs out or comes back, so it doesn't poll
+    protected Fsm fsm;
 
     protected float maxHp = SETTINGS.PLAYER_HP;
     protected float hp = maxHp;
     protected float gcTime = SETTINGS.GC_DURATION; // when this expires, garbage collected
+    protected float startHpScale;
 
     public Health(float startHpScale) {
         super("Health");
 
+        this.startHpScale = startHpScale;
         this.hp = startHpScale * maxHp;
     }
 
@@ -35,9 +41,10 @@ public class Health extends Component {
     public void init(GameObject owner) {
         super.init(owner);
 
-        transform = (Transform) owner.getComponent("Transform");
-        primitiveHealth = (PrimitiveHealth) owner.getComponent("PrimitiveHealth");
-        spritePlusOne = (SpritePlusOne) owner.getComponent("SpritePlusOne");
+        transform = owner.getComponent(Transform.class);
+        primitiveHealth = owner.getComponent(PrimitiveHealth.class);
+        spritePlusOne = owner.getComponent(SpritePlusOne.class);
+        fsm = owner.getComponent(Fsm.class);
 
         // init the width of the visuals
         primitiveHealth.scaleWidth(hp/maxHp);
@@ -50,6 +57,9 @@ public class Health extends Component {
             hp = 0;
         }
         primitiveHealth.scaleWidth(hp/maxHp);
+        pushEmpty();
+
+        owner.wake();
     }
 
     public void heal(float amt) {
@@ -60,18 +70,18 @@ public class Health extends Component {
         primitiveHealth.scaleWidth(hp/maxHp);
 
         spritePlusOne.reset();
+        pushEmpty();
+
+        owner.wake();
     }
 
     @Override
     public void update(float dt) {
         super.update(dt);
 
-        // flag to be destroyed after timer expires
-        if (isEmpty()) {
+        // count down to be destroyed, HealthSystem flags it on the main thread once expired
+        if (isEmpty() && gcTime > 0) {
             gcTime -= dt;
-            if (gcTime <= 0) {
-                owner.setDestroyed();
-            }
         }
 
         // do fade out animation for sprite
@@ -81,6 +91,33 @@ public class Health extends Component {
         }
     }
 
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        hp = startHpScale * maxHp;
+        gcTime = SETTINGS.GC_DURATION;
+    }
+
+    @Override
+    public boolean isSettled() {
+        // empty ones are counting down to be collected
+        return !isEmpty() && spritePlusOne.getAlpha() <= 0;
+    }
+
+    private void pushEmpty() {
+        if (fsm != null) {
+            fsm.setCondition(FsmDef.Event.HEALTH_EMPTY, isEmpty());
+        }
+    }
+
+    /**
+     * Empty for long enough to be garbage collected.
+     */
+    public boolean isGcDue() {
+        return isEmpty() && gcTime <= 0;
+    }
+
     public boolean isEmpty() {
         return (hp == 0);
     }
@@ -7,6 +7,7 @@ import com.singaporetech.eod.CollisionEngine;
 import com.singaporetech.eod.GameObject;
 import com.singaporetech.eod.RenderEngine;
 import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.components.collision.CollisionLayer;
 import com.singaporetech.eod.components.render.SpriteInput;
 
 /**
@@ -27,6 +28,9 @@ public class Input extends Component{
 
     private GameObject pickedBug = null;
 
+    // taps are latched once per rendered frame so one isn't lost on a frame with no sim steps
+    private static boolean isJustTouched = false;
+
     public Input(InputType type) {
         super("Input");
 
@@ -37,7 +41,7 @@ public class Input extends Component{
     public void init(GameObject owner) {
         super.init(owner);
 
-        spriteInput = (SpriteInput) owner.getComponent("SpriteInput");
+        spriteInput = owner.getComponent(SpriteInput.class);
         spriteInput.setAlpha(0);
     }
 
@@ -51,6 +55,11 @@ public class Input extends Component{
         }
     }
 
+    @Override
+    public boolean isSettled() {
+        return spriteInput.getAlpha() <= 0;
+    }
+
     public boolean isTriggered() {
         switch (type) {
             case TOUCH:
@@ -66,7 +75,8 @@ public class Input extends Component{
     public boolean isJustTriggered() {
         switch (type) {
             case TOUCH:
-                if (Gdx.input.justTouched()) {
+                if (isJustTouched) {
+                    isJustTouched = false;
                     processPos(Gdx.input.getX(), Gdx.input.getY());
                     return true;
                 }
@@ -75,6 +85,22 @@ public class Input extends Component{
         return false;
     }
 
+    /**
+     * Latch this frame's tap, call once per rendered frame before the sim steps.
+     * @return whether there's a touch at all, to wake whatever listens for input
+     */
+    public static boolean pollTouch() {
+        isJustTouched |= Gdx.input.justTouched();
+        return isJustTouched || Gdx.input.isTouched();
+    }
+
+    /**
+     * Drop an unused tap once the sim has had a chance to see it.
+     */
+    public static void clearTouch() {
+        isJustTouched = false;
+    }
+
     private void processPos(int x, int y) {
         // set all pos
         screenPos3D.set(x, y, 0);
@@ -82,19 +108,14 @@ public class Input extends Component{
         RenderEngine.i().getCam().unproject(worldPos3D);
         worldPos2D.set(worldPos3D.x, worldPos3D.y);
 
-        // get collided game object with this position
-        pickedBug = CollisionEngine.i().getObjectCollidedWithPos(worldPos2D);
+        // get collided bug with this position
+        pickedBug = CollisionEngine.i().getObjectCollidedWithPos(worldPos2D, CollisionLayer.ENEMY);
 
         // check if it's a walkable position
-        if (pickedBug == null) {
+        if (pickedBug == null && CollisionEngine.i().isFreeOfCollisions(worldPos2D, ~CollisionLayer.ENEMY)) {
             spriteInput.reset();
             spriteInput.setPos(worldPos2D);
         }
-
-        // check whether it's actually a bug that's picked
-        else if (!pickedBug.getName().contains("bug")) {
-            pickedBug = null;
-        }
     }
 
     public GameObject getPickedBug() {
@@ -0,0 +1,207 @@
+package com.singaporetech.eod.components;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import com.singaporetech.eod.CollisionEngine;
+import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.components.collision.Collider;
+
+/**
+ * Packed motion state of every entity, Transform and Movement are thin views over it.
+ * - one slot per Transform, each field is a plain float column indexed by the slot
+ * - Movement.move() only records the acceleration, integrate() then advances every entity
+ *   that was pushed this frame in one linear pass over the columns
+ */
+public class MotionStore {
+    private static final String TAG = "MotionStore";
+
+    private static MotionStore instance = new MotionStore();
+    public static MotionStore i() {
+        return instance;
+    }
+    private MotionStore() {}
+
+    // slots in use are [0, size) minus the free ones
+    private int size = 0;
+    private IntArray freeSlots = new IntArray();
+
+    // transform columns
+    float[] x = new float[64];
+    float[] y = new float[64];
+    float[] rot = new float[64];
+    float[] forwardX = new float[64];
+    float[] forwardY = new float[64];
+
+    // transform at the start of the current sim step, for render interpolation
+    float[] prevX = new float[64];
+    float[] prevY = new float[64];
+    float[] prevRot = new float[64];
+
+    // movement columns
+    float[] velX = new float[64];
+    float[] velY = new float[64];
+    float[] accX = new float[64];
+    float[] accY = new float[64];
+    boolean[] isPushed = new boolean[64];
+    boolean[] isAlive = new boolean[64];
+
+    // only touched for the per entity bits of the pass, i.e., collision
+    Collider[] colliders = new Collider[64];
+
+    // scratch for the collision clip
+    private Vector2 clipFrom = new Vector2();
+    private Vector2 clipDisp = new Vector2();
+
+    /**
+     * @return a fresh slot, zeroed
+     */
+    public int allocate() {
+        int id;
+        if (freeSlots.size > 0) {
+            id = freeSlots.pop();
+        }
+        else {
+            if (size == x.length) {
+                grow();
+            }
+            id = size++;
+        }
+
+        x[id] = y[id] = rot[id] = 0;
+        prevX[id] = prevY[id] = prevRot[id] = 0;
+        forwardX[id] = 1;
+        forwardY[id] = 0;
+        velX[id] = velY[id] = accX[id] = accY[id] = 0;
+        isPushed[id] = false;
+        isAlive[id] = true;
+        colliders[id] = null;
+        return id;
+    }
+
+    public void free(int id) {
+        if (!isAlive[id]) {
+            return;
+        }
+        isAlive[id] = false;
+        isPushed[id] = false;
+        colliders[id] = null;
+        freeSlots.add(id);
+    }
+
+    /**
+     * Advance everything pushed by a Movement this frame.
+     * - same maths as Movement.move() used to do per entity
+     * @param dt
+     */
+    public void integrate(float dt) {
+        integrate(dt, 0, size);
+    }
+
+    /**
+     * Same as above for slots [from, to), ranges that don't overlap can run on different threads
+     * as long as CCD is off.
+     */
+    public void integrate(float dt, int from, int to) {
+        final float[] x = this.x, y = this.y, velX = this.velX, velY = this.velY, accX = this.accX, accY = this.accY;
+        final boolean isCcd = CollisionEngine.i().getCcdMode() != CollisionEngine.CcdMode.OFF;
+
+        for (int id = from; id < to; ++id) {
+            if (!isPushed[id]) {
+                continue;
+            }
+            isPushed[id] = false;
+
+            float ax = accX[id], ay = accY[id];
+            if (ax * ax + ay * ay <= 0) {
+                velX[id] = velY[id] = 0;
+                continue;
+            }
+
+            // update vel
+            float vx = velX[id] += ax * dt;
+            float vy = velY[id] += ay * dt;
+            float velLen = (float) Math.sqrt(vx * vx + vy * vy);
+
+            // update position
+            // - clipped so a big step can't tunnel through things
+            float dx = vx * dt, dy = vy * dt;
+            Collider collider = colliders[id];
+            if (collider != null) {
+                collider.setCollisionVecLen(velLen * SETTINGS.COLLISION_FORWARD_LEN);
+                if (isCcd) {
+                    clipDisp.set(dx, dy);
+                    CollisionEngine.i().clipDisplacement(collider, clipFrom.set(x[id], y[id]), clipDisp);
+                    dx = clipDisp.x;
+                    dy = clipDisp.y;
+                }
+            }
+            x[id] += dx;
+            y[id] += dy;
+
+            // update rotation
+            if (velLen > 0) {
+                forwardX[id] = vx / velLen;
+                forwardY[id] = vy / velLen;
+                rot[id] = MathUtils.radiansToDegrees * MathUtils.atan2(vy, vx);
+            }
+        }
+    }
+
+    /**
+     * Remember the transforms before a sim step so rendering can blend from them.
+     */
+    public void snapshot() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+        System.arraycopy(rot, 0, prevRot, 0, size);
+    }
+
+    /**
+     * Slots in use, including freed ones below the high water mark.
+     */
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (int id = 0; id < size; ++id) {
+            isAlive[id] = false;
+            colliders[id] = null;
+        }
+        size = 0;
+        freeSlots.clear();
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = copy(x, capacity);
+        y = copy(y, capacity);
+        rot = copy(rot, capacity);
+        forwardX = copy(forwardX, capacity);
+        forwardY = copy(forwardY, capacity);
+        prevX = copy(prevX, capacity);
+        prevY = copy(prevY, capacity);
+        prevRot = copy(prevRot, capacity);
+        velX = copy(velX, capacity);
+        velY = copy(velY, capacity);
+        accX = copy(accX, capacity);
+        accY = copy(accY, capacity);
+
+        boolean[] newIsPushed = new boolean[capacity];
+        System.arraycopy(isPushed, 0, newIsPushed, 0, size);
+        isPushed = newIsPushed;
+        boolean[] newIsAlive = new boolean[capacity];
+        System.arraycopy(isAlive, 0, newIsAlive, 0, size);
+        isAlive = newIsAlive;
+        Collider[] newColliders = new Collider[capacity];
+        System.arraycopy(colliders, 0, newColliders, 0, size);
+        colliders = newColliders;
+    }
+
+    private float[] copy(float[] column, int capacity) {
+        float[] newColumn = new float[capacity];
+        System.arraycopy(column, 0, newColumn, 0, size);
+        return newColumn;
+    }
+}
@@ -15,10 +15,10 @@ public class Movement extends Component {
     private com.singaporetech.eod.components.Transform transform;
     private Collider collider;
 
-    private Vector2 acc = new Vector2();
+    // vel and acc live in the MotionStore columns of the transform's slot
+    private final MotionStore store = MotionStore.i();
+    private int id;
     private Vector2 vel = new Vector2();
-    private Vector2 disp = new Vector2();
-    private Vector2 dir = new Vector2();
     private float mass = SETTINGS.MASS;
     private float speed = SETTINGS.SPEED_PLAYER; //todo: need to match the speed of steering
 
@@ -35,19 +35,31 @@ public class Movement extends Component {
         super.init(owner);
 
         // setup links
-        transform = (Transform) owner.getComponent("Transform");
-        collider = (Collider) owner.getComponent("Collider");
+        transform = owner.getComponent(Transform.class);
+        collider = owner.getComponent(Collider.class);
+        id = transform.getId();
+        store.colliders[id] = collider;
 
         // init vel
-        vel.setZero();
+        store.velX[id] = store.velY[id] = 0;
     }
 
     public void setVel(Vector2 vel) {
-        this.vel = vel;
+        store.velX[id] = vel.x;
+        store.velY[id] = vel.y;
     }
 
+    /**
+     * Shared vector, don't modify, use setVel().
+     * @return
+     */
     public Vector2 getVel() {
-        return vel;
+        return vel.set(store.velX[id], store.velY[id]);
+    }
+
+    @Override
+    public boolean isSettled() {
+        return store.velX[id] == 0 && store.velY[id] == 0 && !store.isPushed[id];
     }
 
     public void faceTargetPos(Vector2 pos) {
@@ -58,31 +70,32 @@ public class Movement extends Component {
      * AI: steering
      * 2. Using the force to update position
      * - don't forget your classical mechanics
+     * - only the acceleration is stored here, MotionStore.integrate() does the rest for all
+     *   entities at once at the end of the frame
      * @return
      */
     public void move(float dt, Vector2 force) {
         // calc acc
-        acc.set(force).scl(1/mass);
-
-        if (acc.len2() > 0) {
-            // update vel
-            vel.add(acc.scl(dt));
+        store.accX[id] = force.x / mass;
+        store.accY[id] = force.y / mass;
+        store.isPushed[id] = true;
+    }
 
-            // update collider
-            collider.setCollisionVecLen(vel.len() * SETTINGS.COLLISION_FORWARD_LEN);
+    @Override
+    public void release() {
+        super.release();
 
-            // update position
-            disp.set(vel).scl(dt);
-            transform.translate(disp);
+        // only linked to a slot once init
+        if (transform != null) {
+            store.isPushed[id] = false;
+            store.colliders[id] = null;
+        }
+    }
 
-            // update rotation
-            dir.set(vel).nor();
-            transform.setForward(dir);
+    @Override
+    public void finalize() {
+        super.finalize();
 
-            //Gdx.app.log(TAG, "vel=" + vel + " acc=" + acc + " disp=" + displacement);
-        }
-        else {
-            vel.setZero();
-        }
+        store.colliders[id] = null;
     }
 }
@@ -1,22 +1,23 @@
 package com.singaporetech.eod.components;
 
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.GameObjectPool;
 import com.singaporetech.eod.GameState;
+import com.singaporetech.eod.Prefab;
 import com.singaporetech.eod.SETTINGS;
-import com.singaporetech.eod.components.ai.FsmBug;
-import com.singaporetech.eod.components.ai.SteeringPursue;
 import com.singaporetech.eod.components.collision.Collider;
-import com.singaporetech.eod.components.render.PrimitiveHealth;
-import com.singaporetech.eod.components.render.SpriteBam;
-import com.singaporetech.eod.components.render.SpritePlusOne;
-import com.singaporetech.eod.components.render.SpriteSheetBug;
-
-import java.util.LinkedList;
-import java.util.List;
+import com.singaporetech.eod.components.collision.CollisionLayer;
 
 /**
  * Created by mrchek on 6/2/17.
  * todo: different spawn types
+ * - bugs come from a GameObjectPool, destroyed ones go back to it through the DestructionQueue
+ *   and the next night reuses them
+ * - bugs are built from prefabs/bug.json, which loads the bug textures once for all of them,
+ *   or prefabs/bug_bt.json for behavior tree bugs if SETTINGS.BUG_BEHAVIOR_TREE
+ * - during the day the pool is topped up a bug per frame so nightfall doesn't load textures
  */
 
 public class SpawnMgr extends Component {
@@ -25,14 +26,27 @@ public class SpawnMgr extends Component {
     private int spawnTimes = 0;
     private int numToSpawn = 1;
 
-    private List<GameObject> gameObjects = new LinkedList<GameObject>();
     private GameObject player;
     private int spawnPosX = SETTINGS.BUG_POS_X;
+    private int numBuilt = 0;
+    private Vector2 spawnPos = new Vector2();
+
+    private final Prefab bugPrefab = Prefab.load(SETTINGS.BUG_BEHAVIOR_TREE
+            ? "prefabs/bug_bt.json" : "prefabs/bug.json");
+    private final ObjectMap<String, GameObject> bugRefs = new ObjectMap<String, GameObject>();
+
+    private final GameObjectPool bugPool = new GameObjectPool(16, SETTINGS.BUG_POOL_MAX) {
+        @Override
+        protected GameObject build() {
+            return buildBug("bug" + numBuilt++);
+        }
+    };
 
     public SpawnMgr(GameObject player) {
         super("SpawnMgr");
 
         this.player = player;
+        bugRefs.put("player", player);
     }
 
     @Override
@@ -42,23 +56,28 @@ public class SpawnMgr extends Component {
         spawn();
     }
 
+    /**
+     * Components of a bug, not init yet.
+     * @param name
+     * @return
+     */
+    private GameObject buildBug(String name) {
+        GameObject bug = bugPrefab.instantiate(name, bugRefs);
+        if (SETTINGS.BUG_VS_BUG) {
+            Collider collider = bug.getComponent(Collider.class);
+            collider.setMask(CollisionLayer.STATIC | CollisionLayer.ENEMY);
+        }
+        return bug;
+    }
+
     public void spawn() {
         GameObject bug;
 
         for (int i=0; i<numToSpawn; ++i) {
-            bug = new GameObject("bug"+i);
-            gameObjects.add(bug);
-            bug.addComponent(new Transform(spawnPosX, SETTINGS.BUG_POS_Y, 50));
-            bug.addComponent(new SpriteSheetBug("sprites/cockroach.txt"));
-            bug.addComponent(new Movement(SETTINGS.SPEED_BUG));
-            bug.addComponent(new Collider(false, false));
-            bug.addComponent(new SteeringPursue(player));
-            bug.addComponent(new Combat(player, SETTINGS.BUG_DMG));
-            bug.addComponent(new Health());
-            bug.addComponent(new SpritePlusOne("sprites/plus1.png")); //todo: decouple this from primitive health
-            bug.addComponent(new PrimitiveHealth());
-            bug.addComponent(new FsmBug());
-            bug.addComponent(new SpriteBam("sprites/bam.png"));
+            bug = bugPool.obtain();
+            Transform transform = bug.getComponent(Transform.class);
+            transform.setPos(spawnPos.set(spawnPosX, SETTINGS.BUG_POS_Y));
+            transform.setRot(50);
             bug.init();
 
             // move spawn pos by a little each time
@@ -87,30 +106,27 @@ public class SpawnMgr extends Component {
         if (GameState.i().isCanSpawn()) {
             spawn();
         }
-
-        // garbage collection
-        // - delete one at a time
-        for (GameObject go: gameObjects) {
-            if (go.isDestroyed()) {
-                go.finalize();
-                gameObjects.remove(go);
-                break;
-            }
+        else {
+            bugPool.prewarm(numToSpawn, SETTINGS.BUG_PREWARM_PER_FRAME);
         }
 
-        // process game object updates
-        for (GameObject go: gameObjects) {
-            go.update(dt);
-        }
+        // the bugs themselves are updated by the SystemEngine
+    }
+
+    /**
+     * Always waiting for the night.
+     */
+    @Override
+    public boolean isSettled() {
+        return false;
     }
 
     @Override
     public void finalize() {
         super.finalize();
 
-        for (GameObject go: gameObjects) {
-            go.finalize();
-        }
-        gameObjects.clear();
+        // the pool finalizes every bug it built, out in the game or not
+        bugPool.clear();
+        bugPrefab.dispose();
     }
 }
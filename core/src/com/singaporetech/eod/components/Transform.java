@@ -10,64 +10,127 @@ import com.badlogic.gdx.math.Vector2;
 public class Transform extends Component {
     private static final String TAG = "Transform:C";
 
-    protected Vector2 pos;
-    protected float rot;
-    protected Vector2 forward;
+    // state lives in the MotionStore columns, this is just a view on slot id
+    protected final MotionStore store = MotionStore.i();
+    protected final int id;
+
+    // views handed out by the getters
+    private final Vector2 pos = new Vector2();
+    private final Vector2 forward = new Vector2();
 
     public Transform(int x, int y, int r) {
         super("Transform");
 
-        pos = new Vector2(x, y);
-        rot = r;
-        forward = new Vector2(1,0).rotate(r);
+        id = store.allocate();
+        store.x[id] = store.prevX[id] = x;
+        store.y[id] = store.prevY[id] = y;
+        setRot(r);
+    }
+
+    /**
+     * Slot in the MotionStore.
+     * @return
+     */
+    public int getId() {
+        return id;
     }
 
+    /**
+     * Jump to a position, rendering doesn't blend from the old one.
+     * @param pos
+     */
     public void setPos(Vector2 pos) {
-        this.pos.set(pos);
+        store.x[id] = store.prevX[id] = pos.x;
+        store.y[id] = store.prevY[id] = pos.y;
     }
 
+    /**
+     * Shared vector, don't modify, use setPos() or translate().
+     * @return
+     */
     public Vector2 getPos() {
-        return pos;
+        return pos.set(store.x[id], store.y[id]);
     }
 
     public float getX() {
-        return pos.x;
+        return store.x[id];
     }
 
     public float getY() {
-        return pos.y;
+        return store.y[id];
     }
 
     public float getRot() {
-        return rot;
+        return store.rot[id];
     }
 
+    /**
+     * Jump to a rotation, rendering doesn't blend from the old one.
+     * @param r
+     */
     public void setRot(float r) {
-        rot = r;
-        forward.set(1,0).rotate(r);
+        store.rot[id] = store.prevRot[id] = r;
+        store.forwardX[id] = MathUtils.cosDeg(r);
+        store.forwardY[id] = MathUtils.sinDeg(r);
+    }
+
+    /**
+     * Position blended between the last sim step and this one, for rendering.
+     * @param alpha 0 is the last step, 1 is this one
+     */
+    public float getLerpX(float alpha) {
+        return store.prevX[id] + (store.x[id] - store.prevX[id]) * alpha;
+    }
+
+    public float getLerpY(float alpha) {
+        return store.prevY[id] + (store.y[id] - store.prevY[id]) * alpha;
+    }
+
+    /**
+     * Rotation blended the short way round.
+     */
+    public float getLerpRot(float alpha) {
+        float prev = store.prevRot[id];
+        float diff = ((store.rot[id] - prev) % 360 + 540) % 360 - 180;
+        return prev + diff * alpha;
     }
 
     public void setForward(Vector2 vec) {
-        forward.set(vec);
-        rot = MathUtils.radiansToDegrees * MathUtils.atan2(vec.y, vec.x); // todo: check if this is correct
+        store.forwardX[id] = vec.x;
+        store.forwardY[id] = vec.y;
+        store.rot[id] = MathUtils.radiansToDegrees * MathUtils.atan2(vec.y, vec.x); // todo: check if this is correct
 
 //        Gdx.app.log(TAG, "setForward: rot=" + rot);
     }
 
     public void translate(float x, float y) {
-        pos.add(x, y);
+        store.x[id] += x;
+        store.y[id] += y;
     }
 
     public void translate(Vector2 vec) {
-        pos.add(vec);
+        translate(vec.x, vec.y);
     }
 
     public void rotate(int r) {
-        rot += r;
-        forward.rotate(r);
+        store.rot[id] += r;
+        getForward().rotate(r);
+        store.forwardX[id] = forward.x;
+        store.forwardY[id] = forward.y;
     }
 
+    /**
+     * Shared vector, don't modify, use setForward().
+     * @return
+     */
     public Vector2 getForward() {
-        return forward;
+        return forward.set(store.forwardX[id], store.forwardY[id]);
+    }
+
+    @Override
+    public void finalize() {
+        super.finalize();
+
+        store.free(id);
     }
 }
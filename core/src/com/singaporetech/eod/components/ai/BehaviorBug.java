@@ -0,0 +1,94 @@
+package com.singaporetech.eod.components.ai;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.btree.utils.BehaviorTreeParser;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.components.ai.btree.BugBlackboard;
+import com.singaporetech.eod.components.render.SpriteSheetBug;
+
+/**
+ * Bug AI driven by a gdx-ai BehaviorTree instead of an FsmBug.
+ * - the tree is loaded once per file under assets/btree and shared by every bug using it,
+ *   each bug only holds its BugBlackboard
+ * - the leaves check the FsmDef events and run the FsmDef actions through this Brain, so a new
+ *   kind of bug is a new .btree file
+ * - gdx-ai keeps the running branch in the tasks themselves, which a shared tree can't do per
+ *   bug, so every update steps the tree from the root on this bug's blackboard and resets it
+ *   for the next bug, the Act the bug is in carries on from its blackboard
+ * - only stepped from one thread at a time, the AiSystem doesn't split its range
+ */
+public class BehaviorBug extends Brain {
+    private static final String TAG = "BehaviorBug:C";
+
+    public static final String TREE_PATH = "btree/bug.btree";
+
+    private static final ObjectMap<String, BehaviorTree<BugBlackboard>> trees = new ObjectMap<String, BehaviorTree<BugBlackboard>>();
+
+    private final BehaviorTree<BugBlackboard> tree;
+    private final BugBlackboard board = new BugBlackboard(this);
+
+    public BehaviorBug() {
+        this(getTree(TREE_PATH));
+    }
+
+    public BehaviorBug(BehaviorTree<BugBlackboard> tree) {
+        super("BehaviorBug");
+
+        this.tree = tree;
+    }
+
+    /**
+     * @param path internal file, e.g., btree/bug.btree
+     * @return the shared tree, parsed on first use
+     */
+    public static BehaviorTree<BugBlackboard> getTree(String path) {
+        BehaviorTree<BugBlackboard> tree = trees.get(path);
+        if (tree == null) {
+            tree = new BehaviorTreeParser<BugBlackboard>().parse(Gdx.files.internal(path), null);
+            trees.put(path, tree);
+        }
+        return tree;
+    }
+
+    @Override
+    public void init(GameObject owner) {
+        super.init(owner);
+
+        // setup additional links
+        spriteSheet = owner.getComponent(SpriteSheetBug.class);
+        steering = steeringPursue;
+    }
+
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        board.recycle();
+    }
+
+    @Override
+    public void update(float dt) {
+        beginUpdate();
+        board.setDt(dt);
+        tree.setObject(board);
+        tree.step();
+        tree.reset();
+    }
+
+    @Override
+    public Fsm.StateType getCurrState() {
+        return board.getState();
+    }
+
+    public BugBlackboard getBoard() {
+        return board;
+    }
+
+    @Override
+    public boolean isSettled() {
+        // idle with a target pursues right away
+        return board.getState() == Fsm.StateType.IDLE && !combat.hasTarget();
+    }
+}
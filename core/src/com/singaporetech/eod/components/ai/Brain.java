@@ -0,0 +1,247 @@
+package com.singaporetech.eod.components.ai;
+
+import com.badlogic.gdx.math.Vector2;
+import com.singaporetech.eod.CollisionEngine;
+import com.singaporetech.eod.Game;
+import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.RenderEngine;
+import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.components.Combat;
+import com.singaporetech.eod.components.Component;
+import com.singaporetech.eod.components.Health;
+import com.singaporetech.eod.components.Input;
+import com.singaporetech.eod.components.Movement;
+import com.singaporetech.eod.components.Transform;
+import com.singaporetech.eod.components.collision.Collider;
+import com.singaporetech.eod.components.render.SpriteSheet;
+
+/**
+ * Decision making of an object, e.g., an Fsm or a behavior tree.
+ * - says what it's doing as a StateType so the AiSystem can pick how often to update it
+ * - keeps the steering force of its last update so coast() can carry on moving in between
+ * - runs the FsmDef actions and checks the FsmDef events for either kind, input and collision
+ *   probes are asked at most once between beginUpdate() calls
+ */
+public abstract class Brain extends Component {
+    // polled inputs for this update: UNKNOWN until asked, then 0 or 1
+    private static final int UNKNOWN = -1;
+    private int isTriggered = UNKNOWN;
+    private int isJustTriggered = UNKNOWN;
+    private int isObstacleAhead = UNKNOWN;
+
+    protected Transform transform;
+    protected com.singaporetech.eod.components.collision.Collider collider;
+    protected Steering steering;
+    protected com.singaporetech.eod.components.render.SpriteSheet spriteSheet;
+    protected Combat combat;
+    protected Health health;
+    protected Input input;
+    protected SteeringArrive steeringArrive;
+    protected SteeringPath steeringPath;
+    protected SteeringPursue steeringPursue;
+
+    // to remember last destination position to resume steering after collision
+    protected Vector2 lastDestPos = new Vector2();
+
+    protected Movement movement;
+
+    // steering force applied on the last update, kept up by coast() in between
+    protected Vector2 lastForce = new Vector2();
+
+    public Brain(String name) {
+        super(name);
+    }
+
+    /**
+     * Note that the sprite sheet and steering links need to be set in the subclass
+     * @param owner
+     */
+    @Override
+    public void init(GameObject owner) {
+        super.init(owner);
+
+        transform = owner.getComponent(Transform.class);
+        collider = owner.getComponent(Collider.class);
+        movement = owner.getComponent(Movement.class);
+        combat = owner.getComponent(Combat.class);
+        health = owner.getComponent(Health.class);
+        input = owner.getComponent(Input.class);
+        // moves go round the blocks if there's a path steering
+        steeringPath = owner.getComponent(SteeringPath.class);
+        steeringArrive = steeringPath != null ? steeringPath : owner.getComponent(SteeringArrive.class);
+        steeringPursue = owner.getComponent(SteeringPursue.class);
+        //todo: need to assert all components not null
+    }
+
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        lastDestPos.setZero();
+        lastForce.setZero();
+    }
+
+    public abstract Fsm.StateType getCurrState();
+
+    /**
+     * Keep moving with the last steering force without deciding anything, for the frames an
+     * AiSystem skips this brain.
+     * @param dt
+     */
+    public void coast(float dt) {
+        switch(getCurrState()) {
+            case MOVE:
+            case PURSUE:
+            case COLLISION_RESPONSE:
+                movement.move(dt, lastForce);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Forget the input and collision probes of the last update.
+     */
+    protected void beginUpdate() {
+        isTriggered = isJustTriggered = isObstacleAhead = UNKNOWN;
+    }
+
+    /**
+     * Whether a polled event holds now, override to add conditions.
+     */
+    public boolean check(FsmDef.Event event) {
+        switch (event) {
+            case HEALTH_EMPTY:
+                return health.isEmpty();
+            case HAS_TARGET:
+                return combat.hasTarget();
+            case OBSTACLE_AHEAD:
+                return isObstacleAhead();
+            case OBSTACLE_CLEAR:
+                // stays in the response while there's still something to go round
+                return getAvoidTarget() == null;
+            case REACHED_DEST:
+                return steering.reachedDestPos();
+            case TARGET_GOT_AWAY:
+                return steeringPursue.targetGotAway();
+            case TARGET_DESTROYED:
+                return combat.isTargetDestroyed();
+            case TRIGGERED_BUG:
+                return isTriggered() && input.getPickedBug() != null;
+            case TRIGGERED_POS:
+                return isTriggered() && input.getPickedBug() == null;
+            case JUST_TRIGGERED_BUG:
+                return isJustTriggered() && input.getPickedBug() != null;
+            case JUST_TRIGGERED_POS:
+                return isJustTriggered() && input.getPickedBug() == null;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Do an action of the def, override to add actions.
+     */
+    public void run(FsmDef.Action action, float dt) {
+        switch (action) {
+            case SET_DEST_LAST:
+                steering.setDestPos(lastDestPos);
+                break;
+            case SET_DEST_AVOID:
+                steering.setDestPos(collider.getCollisionAvoidTarget());
+                break;
+            case SAVE_DEST:
+                lastDestPos.set(steering.getDestPos());
+                break;
+            case ANIM_RUN:
+                spriteSheet.onAnimation(SpriteSheet.Sequence.RUN);
+                break;
+            case ANIM_MELEE:
+                spriteSheet.onAnimation(SpriteSheet.Sequence.MELEE);
+                break;
+            case ANIM_DESTRUCT:
+                spriteSheet.onAnimation(SpriteSheet.Sequence.DESTRUCT, false);
+                spriteSheet.setAlpha(SETTINGS.DESTRUCTED_ALPHA);
+                break;
+            case ANIM_OFF:
+                spriteSheet.offAnimation();
+                break;
+            case FACE_TARGET:
+                movement.faceTargetPos(combat.getTargetPos());
+                break;
+            case COMBAT_ON:
+                combat.enable();
+                break;
+            case COMBAT_OFF:
+                combat.disable();
+                break;
+            case DESTROY:
+                // leave it up until the destruct animation is done
+                owner.setDestroyed(SETTINGS.DESTRUCT_DELAY);
+                break;
+            case MOVE:
+                movement.move(dt, lastForce.set(steering.getForce()));
+                break;
+            case MOVE_BASE:
+                // set steering target to off-object position and seek
+                movement.move(dt, lastForce.set(steering.getBaseForce()));
+                break;
+            case USE_ARRIVE:
+                steering = steeringArrive;
+                break;
+            case PURSUE_PICKED:
+                steeringPursue.setTarget(input.getPickedBug());
+                steering = steeringPursue;
+                break;
+            case ARRIVE_PICKED:
+                lastDestPos.set(input.getWorldPos2D());
+                steering = steeringArrive;
+                break;
+            case MOVE_TO_PICKED:
+                lastDestPos.set(input.getWorldPos2D());
+                steering.setDestPos(lastDestPos);
+                break;
+            case COMBAT_TARGET_PICKED:
+                combat.setTarget(input.getPickedBug());
+                break;
+            case GAME_OVER:
+                Game.i().pause();
+                RenderEngine.i().showEndGameMenu();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private boolean isTriggered() {
+        if (isTriggered == UNKNOWN) {
+            isTriggered = input.isTriggered() ? 1 : 0;
+        }
+        return isTriggered == 1;
+    }
+
+    private boolean isJustTriggered() {
+        // consumes the tap, so only asked once
+        if (isJustTriggered == UNKNOWN) {
+            isJustTriggered = input.isJustTriggered() ? 1 : 0;
+        }
+        return isJustTriggered == 1;
+    }
+
+    /**
+     * Probe for a block ahead, not needed while the steering already goes round them.
+     */
+    private boolean isObstacleAhead() {
+        if (isObstacleAhead == UNKNOWN) {
+            boolean isRoundBlocks = steering == steeringPath ? steeringPath.isOnPath()
+                    : steering == steeringPursue && steeringPursue.isOnFlowField();
+            isObstacleAhead = !isRoundBlocks && getAvoidTarget() != null ? 1 : 0;
+        }
+        return isObstacleAhead == 1;
+    }
+
+    private Vector2 getAvoidTarget() {
+        return CollisionEngine.i().getCollisionAvoidTarget(collider);
+    }
+}
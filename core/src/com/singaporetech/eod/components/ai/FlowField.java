@@ -0,0 +1,234 @@
+package com.singaporetech.eod.components.ai;
+
+import com.badlogic.gdx.math.Vector2;
+import com.singaporetech.eod.Engine;
+import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.components.Transform;
+
+/**
+ * One shared field of directions towards a target, e.g., the player, for the whole swarm.
+ * - integrated over the NavGrid with Dijkstra from the target's cell (10 per straight step,
+ *   14 per diagonal), then every cell points at its cheapest neighbour
+ * - only rebuilt when the target moves to another cell or the static colliders change, so the
+ *   cost doesn't grow with the number of bugs
+ * - sample() is a single cell lookup, blocked cells next to a block point back out of it
+ */
+public class FlowField implements Engine {
+    private static final String TAG = "FlowField";
+
+    private static final int STRAIGHT = 10;
+    private static final int DIAGONAL = 14;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private GameObject target;
+    private Transform targetTransform;
+
+    private NavGrid grid;
+    private int goalCell = -1;
+    private int rebuilds = 0;
+
+    // per cell
+    private int[] costs = new int[0];
+    private float[] dirX = new float[0];
+    private float[] dirY = new float[0];
+    private boolean[] hasDir = new boolean[0];
+
+    // open list as a binary heap of (cost, cell), stale entries are skipped when popped
+    private int[] heapCosts = new int[0];
+    private int[] heapCells = new int[0];
+    private int heapSize = 0;
+
+    private static FlowField instance = new FlowField();
+    public static FlowField i() {
+        return instance;
+    }
+    private FlowField() {}
+
+    @Override
+    public void init() {
+        target = null;
+        targetTransform = null;
+        grid = null;
+        goalCell = -1;
+    }
+
+    public void setTarget(GameObject target) {
+        this.target = target;
+        targetTransform = target == null ? null : target.getComponent(Transform.class);
+        goalCell = -1;
+    }
+
+    public GameObject getTarget() {
+        return target;
+    }
+
+    /**
+     * Follow the target, once per sim step before the AI runs.
+     */
+    @Override
+    public void tick() {
+        if (targetTransform == null) {
+            return;
+        }
+
+        NavGrid current = NavGrid.current();
+        boolean isNewGrid = current != grid;
+        if (isNewGrid) {
+            grid = current;
+            int n = grid.getCellCount();
+            if (costs.length != n) {
+                costs = new int[n];
+                dirX = new float[n];
+                dirY = new float[n];
+                hasDir = new boolean[n];
+                heapCosts = new int[n * 8 + 1];
+                heapCells = new int[n * 8 + 1];
+            }
+        }
+
+        int cell = grid.cellAt(targetTransform.getX(), targetTransform.getY());
+        if (cell >= 0) {
+            cell = grid.nearestOpen(cell, SETTINGS.NAV_GOAL_RINGS);
+        }
+        if (isNewGrid || cell != goalCell) {
+            goalCell = cell;
+            build();
+        }
+    }
+
+    /**
+     * Direction to head in from a point.
+     * @param out set to a unit direction, untouched if there is none
+     * @return false in the target's own cell, off the grid or where the target can't be reached,
+     *         i.e., head straight for the target instead
+     */
+    public boolean sample(float x, float y, Vector2 out) {
+        if (grid == null || goalCell < 0) {
+            return false;
+        }
+        int cell = grid.cellAt(x, y);
+        if (cell < 0 || cell == goalCell || !hasDir[cell]) {
+            return false;
+        }
+        out.set(dirX[cell], dirY[cell]);
+        return true;
+    }
+
+    /**
+     * Times the field was integrated, for profiling.
+     */
+    public int getRebuilds() {
+        return rebuilds;
+    }
+
+    private void build() {
+        ++rebuilds;
+        int n = grid.getCellCount();
+        for (int i = 0; i < n; ++i) {
+            costs[i] = UNREACHED;
+            hasDir[i] = false;
+        }
+        if (goalCell < 0) {
+            return;
+        }
+
+        // integrate
+        heapSize = 0;
+        costs[goalCell] = 0;
+        push(0, goalCell);
+        while (heapSize > 0) {
+            int cost = heapCosts[0];
+            int cell = pop();
+            if (cost > costs[cell]) {
+                continue;
+            }
+            for (int dy = -1; dy <= 1; ++dy) {
+                for (int dx = -1; dx <= 1; ++dx) {
+                    if (dx == 0 && dy == 0) {
+                        continue;
+                    }
+                    int next = grid.step(cell, dx, dy);
+                    if (next < 0) {
+                        continue;
+                    }
+                    int nextCost = cost + (dx != 0 && dy != 0 ? DIAGONAL : STRAIGHT);
+                    if (nextCost < costs[next]) {
+                        costs[next] = nextCost;
+                        push(nextCost, next);
+                    }
+                }
+            }
+        }
+
+        // point every cell at its cheapest neighbour, blocked ones included so they lead back out
+        for (int cell = 0; cell < n; ++cell) {
+            int best = cell == goalCell ? 0 : UNREACHED;
+            int bestX = 0, bestY = 0;
+            for (int dy = -1; dy <= 1; ++dy) {
+                for (int dx = -1; dx <= 1; ++dx) {
+                    if (dx == 0 && dy == 0) {
+                        continue;
+                    }
+                    int next = grid.step(cell, dx, dy);
+                    if (next >= 0 && costs[next] < best && (grid.isBlocked(cell) || costs[next] < costs[cell])) {
+                        best = costs[next];
+                        bestX = dx;
+                        bestY = dy;
+                    }
+                }
+            }
+            if (bestX != 0 || bestY != 0) {
+                float len = bestX != 0 && bestY != 0 ? (float) Math.sqrt(2) : 1;
+                dirX[cell] = bestX / len;
+                dirY[cell] = bestY / len;
+                hasDir[cell] = true;
+            }
+        }
+    }
+
+    private void push(int cost, int cell) {
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (heapCosts[parent] <= cost) {
+                break;
+            }
+            heapCosts[i] = heapCosts[parent];
+            heapCells[i] = heapCells[parent];
+            i = parent;
+        }
+        heapCosts[i] = cost;
+        heapCells[i] = cell;
+    }
+
+    private int pop() {
+        int top = heapCells[0];
+        int cost = heapCosts[--heapSize];
+        int cell = heapCells[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapCosts[child + 1] < heapCosts[child]) {
+                ++child;
+            }
+            if (heapCosts[child] >= cost) {
+                break;
+            }
+            heapCosts[i] = heapCosts[child];
+            heapCells[i] = heapCells[child];
+            i = child;
+        }
+        heapCosts[i] = cost;
+        heapCells[i] = cell;
+        return top;
+    }
+
+    @Override
+    public void finalize() {
+        init();
+    }
+}
@@ -1,169 +1,139 @@
 package com.singaporetech.eod.components.ai;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.Vector2;
 import com.singaporetech.eod.GameObject;
 import com.singaporetech.eod.SETTINGS;
-import com.singaporetech.eod.components.Combat;
-import com.singaporetech.eod.components.Health;
-import com.singaporetech.eod.components.Component;
-import com.singaporetech.eod.components.Movement;
-import com.singaporetech.eod.components.Transform;
-import com.singaporetech.eod.components.collision.Collider;
-import com.singaporetech.eod.components.render.SpriteSheet;
 
 /**
  * Created by mrchek on 19/1/17.
  * Finite State Machine class.
+ * - runs a shared FsmDef, each Fsm only keeps its state index and links
+ * - every update: the state's act action, then the first event the state listens to that
+ *   holds fires its transition (exit actions, transition actions, enter actions)
+ * - pushed events are set with setCondition() when their inputs change, polled ones are only
+ *   checked in states that listen to them, see Brain.check()
  */
 
-public abstract class Fsm extends Component {
-    private String TAG = "FSM:C";
+public abstract class Fsm extends Brain {
+    private static final String TAG = "FSM:C";
 
     // todo: change SEEK to ARRIVE
     public enum StateType {IDLE, MOVE, PURSUE, COLLISION_RESPONSE, ATTACK, BUILD, DESTRUCT};
-    protected StateType currState = StateType.IDLE;
 
-    protected Transform transform;
-    protected com.singaporetech.eod.components.collision.Collider collider;
-    protected Movement movement;
-    protected Steering steering;
-    protected com.singaporetech.eod.components.render.SpriteSheet spriteSheet;
-    protected Combat combat;
-    protected Health health;
+    protected final FsmDef def;
+    protected int state;
 
-    // to remember last destination position to resume steering after collision
-    protected Vector2 lastDestPos = new Vector2();
+    // pushed events that hold, a bit per FsmDef.Event
+    private int pushed = 0;
 
-    public Fsm () {
-        super("Fsm");
-    }
-
-    public Fsm (String name) {
+    public Fsm (String name, FsmDef def) {
         super(name);
+
+        this.def = def;
+        state = def.getInitial();
     }
 
-    /**
-     * Note that some component links need to be set in the subclass
-     * @param owner
-     */
     @Override
     public void init(GameObject owner) {
         super.init(owner);
-        TAG += ":" + owner.getName();
-
-        transform = (Transform) owner.getComponent("Transform");
-        collider = (Collider) owner.getComponent("Collider");
-        movement = (Movement) owner.getComponent("Movement");
-        combat = (Combat) owner.getComponent("Combat");
-        health = (Health) owner.getComponent("Health");
-        //todo: need to assert all components not null
+
+        setCondition(FsmDef.Event.HEALTH_EMPTY, health != null && health.isEmpty());
+    }
+
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        state = def.getInitial();
+        pushed = 0;
     }
 
     @Override
     public void update(float dt) {
+        beginUpdate();
+
         // act on current state
-        actCurrState(dt);
+        int act = def.getAct(state);
+        if (act != FsmDef.NONE) {
+            run(act, dt);
+        }
+
+        // first event that holds transits, one per update
+        for (int i = def.getEventStart(state), end = def.getEventEnd(state); i < end; ++i) {
+            int event = def.getEvent(i);
+            if (holds(event)) {
+                fire(event);
+                return;
+            }
+        }
     }
 
-    protected void transit(StateType targetState) {
-        String logStr = "Transit from " + currState + " to ";
+    @Override
+    public StateType getCurrState() {
+        return FsmDef.STATES[state];
+    }
 
-        exitCurrState();
-        currState = targetState;
-        enterCurrState();
+    public FsmDef getDef() {
+        return def;
+    }
 
-        Gdx.app.log(TAG, logStr + currState);
+    /**
+     * Set a pushed event, e.g., by Health when hp runs out, picked up on the next update.
+     */
+    public void setCondition(FsmDef.Event event, boolean isHeld) {
+        if (isHeld) {
+            pushed |= 1 << event.ordinal();
+        }
+        else {
+            pushed &= ~(1 << event.ordinal());
+        }
+    }
+
+    /**
+     * Idle states only move on when something from outside happens, e.g., input or a hit.
+     */
+    @Override
+    public boolean isSettled() {
+        return state == StateType.IDLE.ordinal();
     }
 
-    protected void enterCurrState() {
-        switch(currState) {
-            case IDLE:
-                break;
-            case MOVE:
-                steering.setDestPos(lastDestPos);
-                spriteSheet.onAnimation(com.singaporetech.eod.components.render.SpriteSheet.Sequence.RUN);
-                break;
-            case PURSUE: // todo: exact same as MOVE now
-                steering.setDestPos(lastDestPos);
-                spriteSheet.onAnimation(com.singaporetech.eod.components.render.SpriteSheet.Sequence.RUN);
-                break;
-            case COLLISION_RESPONSE:
-                steering.setDestPos(collider.getCollisionAvoidTarget());
-                spriteSheet.onAnimation(com.singaporetech.eod.components.render.SpriteSheet.Sequence.RUN);
-                break;
-            case ATTACK:
-                movement.faceTargetPos(combat.getTargetPos());
-                combat.enable();
-                spriteSheet.onAnimation(com.singaporetech.eod.components.render.SpriteSheet.Sequence.MELEE);
-                break;
-            case DESTRUCT:
-                spriteSheet.onAnimation(SpriteSheet.Sequence.DESTRUCT, false);
-                spriteSheet.setAlpha(SETTINGS.DESTRUCTED_ALPHA);
-                owner.setDestroyed();
-                //todo: destroy object on finish animation
-                break;
-            case BUILD:
-                break;
-            default:
-                break;
+    /**
+     * Take the transition for the event from the current state, if there's one.
+     */
+    protected void fire(int event) {
+        int to = def.getNext(state, event);
+        if (to == FsmDef.NONE) {
+            return;
+        }
+
+        if (to != FsmDef.STAY) {
+            runList(def.getExitStart(state), def.getExitEnd(state));
+        }
+        runList(def.getDoStart(state, event), def.getDoEnd(state, event));
+        if (to != FsmDef.STAY) {
+            if (SETTINGS.FSM_LOG) {
+                Gdx.app.log(TAG, owner.getName() + ": " + FsmDef.STATES[state] + " to " + FsmDef.STATES[to]);
+            }
+            state = to;
+            runList(def.getEnterStart(state), def.getEnterEnd(state));
         }
     }
 
-    protected void actCurrState(float dt) {
-        switch(currState) {
-            case IDLE:
-                break;
-            case MOVE:
-                movement.move(dt, steering.getForce());
-                break;
-            case PURSUE:
-                movement.move(dt, steering.getForce());
-                break;
-            case COLLISION_RESPONSE:
-                // set steering target to off-object position and seek
-                movement.move(dt, steering.getBaseForce());
-                break;
-            case ATTACK:
-                if (combat.isTargetDestroyed()) {
-                    combat.disable();
-                    transit(StateType.IDLE);
-                }
-                break;
-            case DESTRUCT:
-                break;
-            case BUILD:
-                break;
-            default:
-                break;
+    private boolean holds(int event) {
+        FsmDef.Event e = FsmDef.EVENTS[event];
+        if (e.isPushed) {
+            return (pushed & (1 << event)) != 0;
         }
+        return check(e);
+    }
+
+    private void run(int action, float dt) {
+        run(FsmDef.ACTIONS[action], dt);
     }
 
-    protected void exitCurrState() {
-        switch(currState) {
-            case IDLE:
-                break;
-            case MOVE:
-                lastDestPos.set(steering.getDestPos());
-                spriteSheet.offAnimation();
-                break;
-            case PURSUE:
-                lastDestPos.set(steering.getDestPos());
-                spriteSheet.offAnimation();
-                break;
-            case COLLISION_RESPONSE:
-                spriteSheet.offAnimation();
-                break;
-            case ATTACK:
-                combat.disable();
-                spriteSheet.offAnimation();
-                break;
-            case DESTRUCT:
-                break;
-            case BUILD:
-                break;
-            default:
-                break;
+    private void runList(int from, int to) {
+        for (int i = from; i < to; ++i) {
+            run(def.getAction(i), 0);
         }
     }
 }
@@ -0,0 +1,280 @@
+package com.singaporetech.eod.components.ai;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.Arrays;
+
+/**
+ * Immutable state machine for the Fsm runtime, loaded from a JSON file under assets/fsm.
+ * - states are Fsm.StateType names, each with enter/exit action lists, one act action and the
+ *   events it listens to in priority order, e.g.,
+ *   {"event": "REACHED_DEST", "to": "ATTACK", "do": ["COMBAT_TARGET_PICKED"]}
+ * - an event without "to" runs its actions but stays in the state (no exit or enter)
+ * - compiled into a state x event table of primitive arrays, shared by every Fsm using it so
+ *   each one only keeps its state index
+ * - loaded ones are cached by path, get() the same def for every bug
+ */
+public class FsmDef {
+    private static final String TAG = "FsmDef";
+
+    /**
+     * Conditions a state can wait on.
+     * - pushed ones are set on the Fsm by whoever changes their inputs, e.g., Health on a hit,
+     *   the rest are polled at most once per update and only in states that listen to them
+     */
+    public enum Event {
+        HEALTH_EMPTY(true),
+        HAS_TARGET,
+        OBSTACLE_AHEAD,
+        OBSTACLE_CLEAR,
+        REACHED_DEST,
+        TARGET_GOT_AWAY,
+        TARGET_DESTROYED,
+        TRIGGERED_BUG,
+        TRIGGERED_POS,
+        JUST_TRIGGERED_BUG,
+        JUST_TRIGGERED_POS;
+
+        public final boolean isPushed;
+
+        Event() {
+            this(false);
+        }
+
+        Event(boolean isPushed) {
+            this.isPushed = isPushed;
+        }
+    }
+
+    /**
+     * What a state or transition can do, run by Fsm.run().
+     */
+    public enum Action {
+        SET_DEST_LAST,
+        SET_DEST_AVOID,
+        SAVE_DEST,
+        ANIM_RUN,
+        ANIM_MELEE,
+        ANIM_DESTRUCT,
+        ANIM_OFF,
+        FACE_TARGET,
+        COMBAT_ON,
+        COMBAT_OFF,
+        DESTROY,
+        MOVE,
+        MOVE_BASE,
+        USE_ARRIVE,
+        PURSUE_PICKED,
+        ARRIVE_PICKED,
+        MOVE_TO_PICKED,
+        COMBAT_TARGET_PICKED,
+        GAME_OVER
+    }
+
+    public static final int NONE = -1;
+    public static final int STAY = -2;
+
+    static final Fsm.StateType[] STATES = Fsm.StateType.values();
+    static final Event[] EVENTS = Event.values();
+    static final Action[] ACTIONS = Action.values();
+
+    private static final ObjectMap<String, FsmDef> loaded = new ObjectMap<String, FsmDef>();
+
+    private final String name;
+    private final int initial;
+
+    // [state * EVENTS.length + event]: target state, NONE or STAY, and its action range
+    private final int[] next;
+    private final int[] doStart;
+    private final int[] doEnd;
+
+    // [state]: ranges into the flat lists below, act is one action or NONE
+    private final int[] eventStart, eventEnd;
+    private final int[] enterStart, enterEnd;
+    private final int[] exitStart, exitEnd;
+    private final int[] act;
+
+    private final int[] events;
+    private final int[] actions;
+
+    public FsmDef(JsonValue root) {
+        name = root.getString("name");
+        initial = stateOf(root.getString("initial", Fsm.StateType.IDLE.name()));
+
+        int numStates = STATES.length;
+        next = new int[numStates * EVENTS.length];
+        doStart = new int[next.length];
+        doEnd = new int[next.length];
+        eventStart = new int[numStates];
+        eventEnd = new int[numStates];
+        enterStart = new int[numStates];
+        enterEnd = new int[numStates];
+        exitStart = new int[numStates];
+        exitEnd = new int[numStates];
+        act = new int[numStates];
+        Arrays.fill(next, NONE);
+        Arrays.fill(act, NONE);
+
+        IntArray eventList = new IntArray();
+        IntArray actionList = new IntArray();
+        JsonValue states = root.get("states");
+        for (JsonValue s = states.child; s != null; s = s.next) {
+            int state = stateOf(s.name);
+
+            enterStart[state] = actionList.size;
+            addActions(s.get("enter"), actionList);
+            enterEnd[state] = actionList.size;
+
+            exitStart[state] = actionList.size;
+            addActions(s.get("exit"), actionList);
+            exitEnd[state] = actionList.size;
+
+            if (s.has("act")) {
+                act[state] = actionOf(s.getString("act"));
+            }
+
+            eventStart[state] = eventList.size;
+            JsonValue on = s.get("on");
+            for (JsonValue t = on == null ? null : on.child; t != null; t = t.next) {
+                int event = eventOf(t.getString("event"));
+                int slot = state * EVENTS.length + event;
+                if (next[slot] != NONE) {
+                    throw new GdxRuntimeException(name + ": " + s.name + " has " + t.getString("event") + " twice");
+                }
+                next[slot] = t.has("to") ? stateOf(t.getString("to")) : STAY;
+                doStart[slot] = actionList.size;
+                addActions(t.get("do"), actionList);
+                doEnd[slot] = actionList.size;
+                eventList.add(event);
+            }
+            eventEnd[state] = eventList.size;
+        }
+
+        events = eventList.toArray();
+        actions = actionList.toArray();
+    }
+
+    /**
+     * @param path internal file, e.g., fsm/bug.json
+     * @return the shared def, loaded on first use
+     */
+    public static FsmDef get(String path) {
+        FsmDef def = loaded.get(path);
+        if (def == null) {
+            def = new FsmDef(new JsonReader().parse(Gdx.files.internal(path)));
+            loaded.put(path, def);
+        }
+        return def;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getInitial() {
+        return initial;
+    }
+
+    /**
+     * @return target state, STAY for an internal transition or NONE if the state ignores it
+     */
+    public int getNext(int state, int event) {
+        return next[state * EVENTS.length + event];
+    }
+
+    public int getDoStart(int state, int event) {
+        return doStart[state * EVENTS.length + event];
+    }
+
+    public int getDoEnd(int state, int event) {
+        return doEnd[state * EVENTS.length + event];
+    }
+
+    /**
+     * Events the state listens to, in priority order, are getEvent(getEventStart(s)) up to
+     * getEventEnd(s).
+     */
+    public int getEventStart(int state) {
+        return eventStart[state];
+    }
+
+    public int getEventEnd(int state) {
+        return eventEnd[state];
+    }
+
+    public int getEvent(int i) {
+        return events[i];
+    }
+
+    public int getEnterStart(int state) {
+        return enterStart[state];
+    }
+
+    public int getEnterEnd(int state) {
+        return enterEnd[state];
+    }
+
+    public int getExitStart(int state) {
+        return exitStart[state];
+    }
+
+    public int getExitEnd(int state) {
+        return exitEnd[state];
+    }
+
+    /**
+     * @return the action to run every update in the state, NONE if nothing
+     */
+    public int getAct(int state) {
+        return act[state];
+    }
+
+    public int getAction(int i) {
+        return actions[i];
+    }
+
+    private void addActions(JsonValue list, IntArray out) {
+        if (list == null) {
+            return;
+        }
+        if (list.isString()) {
+            out.add(actionOf(list.asString()));
+            return;
+        }
+        for (JsonValue a = list.child; a != null; a = a.next) {
+            out.add(actionOf(a.asString()));
+        }
+    }
+
+    private int stateOf(String s) {
+        try {
+            return Fsm.StateType.valueOf(s).ordinal();
+        }
+        catch (IllegalArgumentException e) {
+            throw new GdxRuntimeException(name + ": unknown state " + s, e);
+        }
+    }
+
+    private int eventOf(String s) {
+        try {
+            return Event.valueOf(s).ordinal();
+        }
+        catch (IllegalArgumentException e) {
+            throw new GdxRuntimeException(name + ": unknown event " + s, e);
+        }
+    }
+
+    private int actionOf(String s) {
+        try {
+            return Action.valueOf(s).ordinal();
+        }
+        catch (IllegalArgumentException e) {
+            throw new GdxRuntimeException(name + ": unknown action " + s, e);
+        }
+    }
+}
@@ -1,13 +1,7 @@
 package com.singaporetech.eod.components.ai;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.Vector2;
-import com.singaporetech.eod.CollisionEngine;
-import com.singaporetech.eod.Game;
 import com.singaporetech.eod.GameObject;
-import com.singaporetech.eod.RenderEngine;
-import com.singaporetech.eod.components.Input;
-import com.singaporetech.eod.components.render.SpriteSheet;
+import com.singaporetech.eod.components.render.SpriteSheetPlayer;
 
 /**
  * Created by mrchek on 23/1/17.
@@ -16,12 +10,14 @@ import com.singaporetech.eod.components.render.SpriteSheet;
 public class FsmPlayer extends Fsm {
     private static final String TAG = "FsmPlayer:C";
 
-    private com.singaporetech.eod.components.Input input;
-    private com.singaporetech.eod.components.ai.SteeringPursue steeringPursue;
-    private SteeringArrive steeringArrive;
+    public static final String DEF_PATH = "fsm/player.json";
 
     public FsmPlayer() {
-        super("FsmPlayer");
+        this(FsmDef.get(DEF_PATH));
+    }
+
+    public FsmPlayer(FsmDef def) {
+        super("FsmPlayer", def);
     }
 
     @Override
@@ -29,167 +25,7 @@ public class FsmPlayer extends Fsm {
         super.init(owner);
 
         // setup additional links
-        spriteSheet = (SpriteSheet) owner.getComponent("SpriteSheetPlayer");
-        steeringArrive = (SteeringArrive) owner.getComponent("SteeringArrive");
-        steeringPursue = (SteeringPursue) owner.getComponent("SteeringPursue");
+        spriteSheet = owner.getComponent(SpriteSheetPlayer.class);
         steering = steeringArrive;
-        input = (Input) owner.getComponent("Input");
-    }
-
-    @Override
-    public void update(float dt) {
-        super.update(dt);
-
-        Vector2 avoidTarget;
-
-        // do transitions
-        switch (currState) {
-            case IDLE:
-                if (health.isEmpty()) {
-                    transit(StateType.DESTRUCT);
-                }
-                else {
-                    if (input.isTriggered()) {
-                        Gdx.app.log(TAG, "MOUSE PICKED");
-
-                        // check whether clicked on Bug
-                        if (input.getPickedBug() != null) {
-                            Gdx.app.log(TAG, "NEW TARGET BUG PICKED: " + input.getPickedBug().getName());
-                            // todo: see how to generalize this
-                            steeringPursue.setTarget(input.getPickedBug());
-                            steering = steeringPursue;
-                            transit(StateType.PURSUE);
-                        } else {
-                            Gdx.app.log(TAG, "NEW MOVE POS PICKED: " + input.getWorldPos2D());
-                            lastDestPos.set(input.getWorldPos2D()); // update destination position
-                            steering = steeringArrive;
-                            transit(StateType.MOVE);
-                        }
-                    }
-                }
-                break;
-
-            case MOVE:
-                if (health.isEmpty()) {
-                    transit(StateType.DESTRUCT);
-                }
-                else {
-                    avoidTarget = CollisionEngine.i().getCollisionAvoidTarget(collider);
-                    if (avoidTarget != null) {
-                        Gdx.app.log(TAG, "COLLISION DETECTED");
-                        transit(StateType.COLLISION_RESPONSE);
-                    } else if (steering.reachedDestPos()) {
-                        Gdx.app.log(TAG, "REACHED DEST POS");
-                        transit(StateType.IDLE);
-                    } else if (input.isJustTriggered()) {
-                        // check whether clicked on Bug
-                        if (input.getPickedBug() != null) {
-                            Gdx.app.log(TAG, "NEW TARGET BUG PICKED");
-
-                            // todo: see how to generalize this
-                            steeringPursue.setTarget(input.getPickedBug());
-                            steering = steeringPursue;
-                            transit(StateType.PURSUE);
-                        } else {
-                            Gdx.app.log(TAG, "NEW MOVE POS PICKED");
-                            lastDestPos.set(input.getWorldPos2D());
-                            steering.setDestPos(lastDestPos);
-                        }
-                    }
-                }
-                break;
-
-            case PURSUE:
-                // todo: allow clicking anywhere to transit move
-
-                if (health.isEmpty()) {
-                    transit(StateType.DESTRUCT);
-                }
-                else {
-                    avoidTarget = CollisionEngine.i().getCollisionAvoidTarget(collider);
-                    if (avoidTarget != null) {
-                        Gdx.app.log(TAG, "COLLISION DETECTED");
-                        transit(StateType.COLLISION_RESPONSE);
-                    } else if (steering.reachedDestPos()) {
-                        Gdx.app.log(TAG, "REACHED TARGET");
-                        combat.setTarget(input.getPickedBug());
-                        transit(StateType.ATTACK);
-                    } else if (input.isTriggered()) {
-                        Gdx.app.log(TAG, "MOUSE PICKED");
-
-                        // check whether clicked on Bug
-                        if (input.getPickedBug() != null) {
-                            Gdx.app.log(TAG, "NEW TARGET BUG PICKED");
-                            // todo: see how to generalize this
-                            steeringPursue.setTarget(input.getPickedBug());
-                            steering = steeringPursue;
-                            transit(StateType.PURSUE);
-                        } else {
-                            Gdx.app.log(TAG, "NEW MOVE POS PICKED");
-                            lastDestPos.set(input.getWorldPos2D()); // update destination position
-                            steering = steeringArrive;
-                            transit(StateType.MOVE);
-                        }
-                    }
-                }
-                break;
-
-            case COLLISION_RESPONSE:
-                if (health.isEmpty()) {
-                    transit(StateType.DESTRUCT);
-                }
-                else {
-                    avoidTarget = CollisionEngine.i().getCollisionAvoidTarget(collider);
-                    if (avoidTarget == null) {
-                        Gdx.app.log(TAG, "NO MORE COLLISIONS");
-                        steering = steeringArrive;
-                        transit(StateType.MOVE);
-                    } else if (steering.reachedDestPos()) {
-                        Gdx.app.log(TAG, "REACHED COLLISION AVOID TARGET");
-                        steering = steeringArrive;
-                        transit(StateType.MOVE);
-                    }
-                }
-                break;
-
-            case ATTACK:
-                if (health.isEmpty()) {
-                    transit(StateType.DESTRUCT);
-                }
-                else {
-                    // todo: allow clicking anywhere to transit move
-                    if (input.isTriggered()) {
-                        Gdx.app.log(TAG, "MOUSE PICKED");
-
-                        // check whether clicked on Bug
-                        if (input.getPickedBug() != null) {
-                            Gdx.app.log(TAG, "NEW TARGET BUG PICKED");
-                            // todo: see how to generalize this
-                            steeringPursue.setTarget(input.getPickedBug());
-                            steering = steeringPursue;
-                            transit(StateType.PURSUE);
-                        } else {
-                            Gdx.app.log(TAG, "NEW MOVE POS PICKED");
-                            lastDestPos.set(input.getWorldPos2D()); // update destination position
-                            steering = steeringArrive;
-                            transit(StateType.MOVE);
-                        }
-                    }
-                }
-                break;
-
-            case BUILD:
-                break;
-
-            case DESTRUCT:
-                // game over
-                Game.i().pause();
-                RenderEngine.i().showEndGameMenu();
-                break;
-
-            default:
-                break;
-        }
-
     }
 }
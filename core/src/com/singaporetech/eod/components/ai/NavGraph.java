@@ -0,0 +1,149 @@
+package com.singaporetech.eod.components.ai;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.SmoothableGraphPath;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * NavGrid as a gdx-ai graph for IndexedAStarPathFinder.
+ * - a node per cell indexed by its cell number, blocked cells have no connections
+ * - 8 way connections costing 1 straight and sqrt(2) diagonal, in cells
+ * - built once per NavGrid, queries don't allocate nodes or connections
+ */
+public class NavGraph implements IndexedGraph<NavGraph.Node> {
+    private static final float DIAGONAL = (float) Math.sqrt(2);
+
+    private final NavGrid grid;
+    private final Node[] nodes;
+
+    /**
+     * Octile distance in cells, never more than the real cost so A* stays optimal.
+     */
+    public static final Heuristic<Node> OCTILE = new Heuristic<Node>() {
+        @Override
+        public float estimate(Node node, Node endNode) {
+            int dx = Math.abs(node.cx - endNode.cx);
+            int dy = Math.abs(node.cy - endNode.cy);
+            return dx + dy + (DIAGONAL - 2) * Math.min(dx, dy);
+        }
+    };
+
+    public NavGraph(NavGrid grid) {
+        this.grid = grid;
+        nodes = new Node[grid.getCellCount()];
+        for (int cell = 0; cell < nodes.length; ++cell) {
+            nodes[cell] = new Node(cell, grid.cellX(cell), grid.cellY(cell), grid.centerX(cell), grid.centerY(cell));
+        }
+
+        for (int cell = 0; cell < nodes.length; ++cell) {
+            if (grid.isBlocked(cell)) {
+                continue;
+            }
+            for (int dy = -1; dy <= 1; ++dy) {
+                for (int dx = -1; dx <= 1; ++dx) {
+                    if (dx == 0 && dy == 0) {
+                        continue;
+                    }
+                    int to = grid.step(cell, dx, dy);
+                    if (to >= 0) {
+                        nodes[cell].connections.add(new Link(nodes[cell], nodes[to], dx != 0 && dy != 0 ? DIAGONAL : 1));
+                    }
+                }
+            }
+        }
+    }
+
+    public NavGrid getGrid() {
+        return grid;
+    }
+
+    public Node getNode(int cell) {
+        return nodes[cell];
+    }
+
+    @Override
+    public int getIndex(Node node) {
+        return node.cell;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    @Override
+    public Array<Connection<Node>> getConnections(Node fromNode) {
+        return fromNode.connections;
+    }
+
+    public static class Node {
+        public final int cell;
+        final int cx, cy;
+        final Vector2 pos;
+        final Array<Connection<Node>> connections = new Array<Connection<Node>>(false, 8);
+
+        Node(int cell, int cx, int cy, float x, float y) {
+            this.cell = cell;
+            this.cx = cx;
+            this.cy = cy;
+            this.pos = new Vector2(x, y);
+        }
+
+        /**
+         * Centre of the cell, shared vector, don't modify.
+         */
+        public Vector2 getPos() {
+            return pos;
+        }
+    }
+
+    /**
+     * Path of cell nodes that PathSmoother can cut corners out of.
+     */
+    public static class Path extends DefaultGraphPath<Node> implements SmoothableGraphPath<Node, Vector2> {
+        @Override
+        public Vector2 getNodePosition(int index) {
+            return nodes.get(index).pos;
+        }
+
+        @Override
+        public void swapNodes(int index1, int index2) {
+            nodes.set(index1, nodes.get(index2));
+        }
+
+        @Override
+        public void truncatePath(int newLength) {
+            nodes.truncate(newLength);
+        }
+    }
+
+    private static class Link implements Connection<Node> {
+        private final Node from, to;
+        private final float cost;
+
+        Link(Node from, Node to, float cost) {
+            this.from = from;
+            this.to = to;
+            this.cost = cost;
+        }
+
+        @Override
+        public float getCost() {
+            return cost;
+        }
+
+        @Override
+        public Node getFromNode() {
+            return from;
+        }
+
+        @Override
+        public Node getToNode() {
+            return to;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.singaporetech.eod.components.ai;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.singaporetech.eod.CollisionEngine;
+import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.components.collision.Collidable;
+
+/**
+ * Walkable grid over the play area, baked from the static colliders.
+ * - a cell is blocked when its centre is inside a static collider's circle grown by the
+ *   clearance, so anything walking cell centres keeps a body's width off the blocks
+ * - cells are numbered cy * cols + cx from the bottom left corner at (0, 0)
+ * - immutable once baked, current() bakes a new one when the static colliders change
+ */
+public final class NavGrid {
+    private final float cellSize, invCellSize;
+    private final int cols, rows;
+    private final boolean[] blocked;
+
+    // grid of the current static colliders, see current()
+    private static NavGrid current;
+    private static int currentVersion;
+
+    private NavGrid(float cellSize, int cols, int rows, boolean[] blocked) {
+        this.cellSize = cellSize;
+        this.invCellSize = 1f / cellSize;
+        this.cols = cols;
+        this.rows = rows;
+        this.blocked = blocked;
+    }
+
+    /**
+     * @param statics colliders that never move
+     * @param width of the play area
+     * @param height of the play area
+     * @param cellSize
+     * @param clearance how far cell centres stay off the colliders, e.g., a body's radius
+     */
+    public static NavGrid bake(Array<Collidable> statics, float width, float height, float cellSize, float clearance) {
+        int cols = MathUtils.ceil(width / cellSize);
+        int rows = MathUtils.ceil(height / cellSize);
+        boolean[] blocked = new boolean[cols * rows];
+
+        // only visit the cells under each grown circle
+        for (int i = 0; i < statics.size; ++i) {
+            Collidable c = statics.get(i);
+            Vector2 pos = c.getBoundingCirclePos();
+            float r = c.getBoundingCircleRadius() + clearance;
+            int x0 = Math.max(MathUtils.floor((pos.x - r) / cellSize), 0);
+            int y0 = Math.max(MathUtils.floor((pos.y - r) / cellSize), 0);
+            int x1 = Math.min(MathUtils.floor((pos.x + r) / cellSize), cols - 1);
+            int y1 = Math.min(MathUtils.floor((pos.y + r) / cellSize), rows - 1);
+            for (int cy = y0; cy <= y1; ++cy) {
+                for (int cx = x0; cx <= x1; ++cx) {
+                    float dx = (cx + 0.5f) * cellSize - pos.x;
+                    float dy = (cy + 0.5f) * cellSize - pos.y;
+                    if (dx * dx + dy * dy < r * r) {
+                        blocked[cy * cols + cx] = true;
+                    }
+                }
+            }
+        }
+        return new NavGrid(cellSize, cols, rows, blocked);
+    }
+
+    /**
+     * Grid over the viewport for the static colliders in the CollisionEngine right now.
+     * - rebaked only when they change, so anything pathing can just ask every frame
+     */
+    public static NavGrid current() {
+        int version = CollisionEngine.i().getStaticVersion();
+        if (current == null || version != currentVersion) {
+            Array<Collidable> statics = CollisionEngine.i().getStaticCollidables(new Array<Collidable>());
+            current = bake(statics, SETTINGS.VIEWPORT_WIDTH, SETTINGS.VIEWPORT_HEIGHT,
+                    SETTINGS.NAV_CELL_SIZE, SETTINGS.NAV_CLEARANCE);
+            currentVersion = version;
+        }
+        return current;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCellCount() {
+        return blocked.length;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * @return cell under the point, or -1 if off the grid
+     */
+    public int cellAt(float x, float y) {
+        int cx = MathUtils.floor(x * invCellSize);
+        int cy = MathUtils.floor(y * invCellSize);
+        return cell(cx, cy);
+    }
+
+    /**
+     * @return cell at the column and row, or -1 if off the grid
+     */
+    public int cell(int cx, int cy) {
+        return cx < 0 || cy < 0 || cx >= cols || cy >= rows ? -1 : cy * cols + cx;
+    }
+
+    public int cellX(int cell) {
+        return cell % cols;
+    }
+
+    public int cellY(int cell) {
+        return cell / cols;
+    }
+
+    public float centerX(int cell) {
+        return (cell % cols + 0.5f) * cellSize;
+    }
+
+    public float centerY(int cell) {
+        return (cell / cols + 0.5f) * cellSize;
+    }
+
+    public boolean isBlocked(int cell) {
+        return blocked[cell];
+    }
+
+    /**
+     * Neighbour one step away, diagonals only if neither side cell is blocked so paths don't
+     * cut the corners of a block.
+     * @return the neighbour, or -1 if it's off the grid or can't be walked to
+     */
+    public int step(int cell, int dx, int dy) {
+        int cx = cell % cols, cy = cell / cols;
+        int to = cell(cx + dx, cy + dy);
+        if (to < 0 || blocked[to]) {
+            return -1;
+        }
+        if (dx != 0 && dy != 0 && (blocked[cy * cols + cx + dx] || blocked[(cy + dy) * cols + cx])) {
+            return -1;
+        }
+        return to;
+    }
+
+    /**
+     * No blocked cell under the segment, checked every quarter cell.
+     * @return false if it crosses a blocked cell or leaves the grid
+     */
+    public boolean isClear(float x0, float y0, float x1, float y1) {
+        float dx = x1 - x0, dy = y1 - y0;
+        int samples = MathUtils.ceil((float) Math.sqrt(dx * dx + dy * dy) * invCellSize * 4) + 1;
+        for (int i = 0; i <= samples; ++i) {
+            float t = (float) i / samples;
+            int cell = cellAt(x0 + dx * t, y0 + dy * t);
+            if (cell < 0 || blocked[cell]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Closest open cell by rings around a cell, e.g., for a target standing right next to a block.
+     * @return the cell itself if open, or -1 if there is no open cell within maxRings
+     */
+    public int nearestOpen(int cell, int maxRings) {
+        if (!blocked[cell]) {
+            return cell;
+        }
+        int cx = cell % cols, cy = cell / cols;
+        for (int ring = 1; ring <= maxRings; ++ring) {
+            for (int dy = -ring; dy <= ring; ++dy) {
+                for (int dx = -ring; dx <= ring; ++dx) {
+                    if (Math.abs(dx) != ring && Math.abs(dy) != ring) {
+                        continue;
+                    }
+                    int other = cell(cx + dx, cy + dy);
+                    if (other >= 0 && !blocked[other]) {
+                        return other;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,268 @@
+package com.singaporetech.eod.components.ai;
+
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.PathSmoother;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.utils.Collision;
+import com.badlogic.gdx.ai.utils.Ray;
+import com.badlogic.gdx.ai.utils.RaycastCollisionDetector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.singaporetech.eod.Engine;
+import com.singaporetech.eod.SETTINGS;
+
+/**
+ * A* paths over the NavGraph with gdx-ai's IndexedAStarPathFinder, e.g., for the player's move to.
+ * - queries are queued and searched one at a time, each tick() only spends
+ *   SETTINGS.PATH_SLICE_NANOS so a long search carries on next frame instead of stalling this one
+ * - a query expanding more than SETTINGS.PATH_MAX_NODES nodes in total gives up
+ * - found paths are smoothed with PathSmoother and cached by start and goal cell, the last
+ *   SETTINGS.PATH_CACHE_SIZE are kept so going back and forth doesn't search again
+ * - graph and cache are rebuilt when NavGrid.current() changes
+ */
+public class PathPlanner implements Engine {
+    private static final String TAG = "PathPlanner";
+
+    /**
+     * One requester's query, reused for every submit().
+     */
+    public static class Query {
+        public enum Status {IDLE, PENDING, FOUND, FAILED}
+
+        private Status status = Status.IDLE;
+        private NavGraph.Path path;
+        private int startCell, goalCell;
+        private int expanded;
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Smoothed path from the start cell to the goal cell once FOUND.
+         * - shared with the cache, don't modify
+         */
+        public NavGraph.Path getPath() {
+            return path;
+        }
+    }
+
+    private NavGrid grid;
+    private NavGraph graph;
+    private IndexedAStarPathFinder<NavGraph.Node> finder;
+    private PathSmoother<NavGraph.Node, Vector2> smoother;
+    private int expanded = 0;
+
+    private final Array<Query> queue = new Array<Query>();
+    private Query active;
+    private final PathFinderRequest<NavGraph.Node> request = new PathFinderRequest<NavGraph.Node>();
+
+    // recent paths by start << 32 | goal, oldest key first
+    private final LongMap<NavGraph.Path> cache = new LongMap<NavGraph.Path>();
+    private final LongArray cacheOrder = new LongArray();
+
+    // for profiling
+    private int searches = 0;
+    private int cacheHits = 0;
+
+    private final RaycastCollisionDetector<Vector2> gridRaycast = new RaycastCollisionDetector<Vector2>() {
+        @Override
+        public boolean collides(Ray<Vector2> ray) {
+            return !grid.isClear(ray.start.x, ray.start.y, ray.end.x, ray.end.y);
+        }
+
+        @Override
+        public boolean findCollision(Collision<Vector2> outputCollision, Ray<Vector2> inputRay) {
+            // PathSmoother only needs yes or no
+            return collides(inputRay);
+        }
+    };
+
+    private static PathPlanner instance = new PathPlanner();
+    public static PathPlanner i() {
+        return instance;
+    }
+    private PathPlanner() {}
+
+    @Override
+    public void init() {
+        queue.clear();
+        active = null;
+        grid = null;
+        graph = null;
+        clearCache();
+    }
+
+    /**
+     * Ask for a path, replaces whatever the query was waiting for.
+     * - a cached path is FOUND straight away, otherwise the query is PENDING until a tick() ends it
+     */
+    public void submit(Query query, float fromX, float fromY, float toX, float toY) {
+        cancel(query);
+        updateGraph();
+
+        int start = grid.cellAt(fromX, fromY);
+        int goal = grid.cellAt(toX, toY);
+        if (start >= 0) {
+            start = grid.nearestOpen(start, SETTINGS.NAV_GOAL_RINGS);
+        }
+        if (goal >= 0) {
+            goal = grid.nearestOpen(goal, SETTINGS.NAV_GOAL_RINGS);
+        }
+        if (start < 0 || goal < 0) {
+            query.status = Query.Status.FAILED;
+            return;
+        }
+        query.startCell = start;
+        query.goalCell = goal;
+
+        NavGraph.Path cached = cache.get(key(start, goal));
+        if (cached != null) {
+            ++cacheHits;
+            touch(key(start, goal));
+            query.path = cached;
+            query.status = Query.Status.FOUND;
+            return;
+        }
+        query.status = Query.Status.PENDING;
+        queue.add(query);
+    }
+
+    /**
+     * Stop waiting on a query, e.g., when its owner goes away.
+     */
+    public void cancel(Query query) {
+        if (query.status == Query.Status.PENDING) {
+            queue.removeValue(query, true);
+            if (active == query) {
+                active = null;
+            }
+        }
+        query.status = Query.Status.IDLE;
+        query.path = null;
+    }
+
+    /**
+     * Search within this frame's time slice.
+     */
+    @Override
+    public void tick() {
+        if (queue.size == 0) {
+            return;
+        }
+        if (updateGraph()) {
+            // restart whatever was half searched on the old graph
+            active = null;
+        }
+
+        long start = TimeUtils.nanoTime();
+        while (queue.size > 0) {
+            long remaining = SETTINGS.PATH_SLICE_NANOS - (TimeUtils.nanoTime() - start);
+            if (remaining <= 0) {
+                break;
+            }
+
+            Query query = queue.first();
+            if (query != active) {
+                begin(query);
+            }
+            boolean isDone = finder.search(request, remaining);
+            query.expanded = expanded;
+
+            if (isDone) {
+                queue.removeIndex(0);
+                active = null;
+                if (request.pathFound) {
+                    finish(query, (NavGraph.Path) request.resultPath);
+                }
+                else {
+                    query.status = Query.Status.FAILED;
+                }
+            }
+            else if (query.expanded > SETTINGS.PATH_MAX_NODES) {
+                queue.removeIndex(0);
+                active = null;
+                query.status = Query.Status.FAILED;
+            }
+        }
+    }
+
+    public int getSearches() {
+        return searches;
+    }
+
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    private void begin(Query query) {
+        ++searches;
+        active = query;
+        expanded = 0;
+        request.startNode = graph.getNode(query.startCell);
+        request.endNode = graph.getNode(query.goalCell);
+        request.heuristic = NavGraph.OCTILE;
+        request.resultPath = new NavGraph.Path();
+        request.pathFound = false;
+        request.statusChanged = true;
+    }
+
+    private void finish(Query query, NavGraph.Path path) {
+        smoother.smoothPath(path);
+
+        long key = key(query.startCell, query.goalCell);
+        cache.put(key, path);
+        touch(key);
+        while (cacheOrder.size > SETTINGS.PATH_CACHE_SIZE) {
+            cache.remove(cacheOrder.removeIndex(0));
+        }
+
+        query.path = path;
+        query.status = Query.Status.FOUND;
+    }
+
+    /**
+     * @return true if the grid changed and the graph was rebuilt
+     */
+    private boolean updateGraph() {
+        NavGrid current = NavGrid.current();
+        if (current == grid) {
+            return false;
+        }
+        grid = current;
+        graph = new NavGraph(grid);
+        finder = new IndexedAStarPathFinder<NavGraph.Node>(graph) {
+            @Override
+            protected void visitChildren(NavGraph.Node endNode, Heuristic<NavGraph.Node> heuristic) {
+                ++expanded;
+                super.visitChildren(endNode, heuristic);
+            }
+        };
+        smoother = new PathSmoother<NavGraph.Node, Vector2>(gridRaycast);
+        clearCache();
+        return true;
+    }
+
+    private void touch(long key) {
+        cacheOrder.removeValue(key);
+        cacheOrder.add(key);
+    }
+
+    private void clearCache() {
+        cache.clear();
+        cacheOrder.clear();
+    }
+
+    private static long key(int startCell, int goalCell) {
+        return ((long) startCell << 32) | (goalCell & 0xffffffffL);
+    }
+
+    @Override
+    public void finalize() {
+        init();
+    }
+}
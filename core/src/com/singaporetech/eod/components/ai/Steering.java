@@ -33,11 +33,14 @@ public abstract class Steering extends Component {
         super.init(owner);
 
         // setup links
-        transform = (Transform) owner.getComponent("Transform");
-        movement = (Movement) owner.getComponent("Movement");
+        transform = owner.getComponent(Transform.class);
+        movement = owner.getComponent(Movement.class);
 
         // init vectors
-        destPos = new Vector2(transform.getX(), transform.getY());
+        if (destPos == null) {
+            destPos = new Vector2();
+        }
+        destPos.set(transform.getX(), transform.getY());
     }
 
     @Override
@@ -45,6 +48,14 @@ public abstract class Steering extends Component {
         super.update(dt);
     }
 
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        dir.setZero();
+        dist = 0;
+    }
+
     public void setDestPos(float x, float y) {
         // todo: steering
         destPos.set(x, y);
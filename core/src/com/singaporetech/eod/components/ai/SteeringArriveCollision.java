@@ -18,6 +18,8 @@ public class SteeringArriveCollision extends SteeringArrive {
 
     protected Vector2 parentForce = new Vector2();
     protected Vector2 collisionForce = new Vector2();
+    protected Vector2 velDir = new Vector2();
+    protected Vector2 resultantForce = new Vector2();
 
     protected Collider collider;
 
@@ -30,7 +32,7 @@ public class SteeringArriveCollision extends SteeringArrive {
         super.init(owner);
 
         // setup links
-        collider = (Collider) owner.getComponent("Collider");
+        collider = owner.getComponent(Collider.class);
     }
 
     @Override
@@ -44,10 +46,10 @@ public class SteeringArriveCollision extends SteeringArrive {
         // if there is a collision position
         if (collisionNorm != null) {
             // calc collision force
-            Vector2 vel = new Vector2(movement.getVel()).nor();
-            collisionForce.set(collisionNorm).sub(vel).scl(collider.getCollisionMag());
+            velDir.set(movement.getVel()).nor();
+            collisionForce.set(collisionNorm).sub(velDir).scl(collider.getCollisionMag());
 
-            Vector2 resultantForce = new Vector2().set(parentForce).scl(0.3f).add(collisionForce.scl(0.7f));
+            resultantForce.set(parentForce).scl(0.3f).add(collisionForce.scl(0.7f));
 
             //Gdx.app.log(TAG, "COLLIDED: pos=" + transform.getPos() + " parF=" + parentForce + " collF=" + collisionForce + " resF=" + resultantForce);
 
@@ -0,0 +1,83 @@
+package com.singaporetech.eod.components.ai;
+
+import com.badlogic.gdx.math.Vector2;
+import com.singaporetech.eod.SETTINGS;
+
+/**
+ * Arrive that goes round the blocks along an A* path from the PathPlanner.
+ * - every setDestPos() asks for a path, until one is found it just arrives straight
+ * - seeks each waypoint of the smoothed path in turn and arrives at the dest pos after the last
+ */
+public class SteeringPath extends SteeringArrive {
+    private static final String TAG = "SteeringPath:C";
+
+    private final PathPlanner.Query query = new PathPlanner.Query();
+    private int waypoint = 1;
+    private boolean isOnPath = false;
+    private Vector2 seekForce = new Vector2();
+
+    public SteeringPath() {
+        super("SteeringPath");
+    }
+
+    @Override
+    public void setDestPos(float x, float y) {
+        super.setDestPos(x, y);
+
+        // first node is where we are
+        waypoint = 1;
+        PathPlanner.i().submit(query, transform.getX(), transform.getY(), x, y);
+    }
+
+    @Override
+    public Vector2 getForce() {
+        isOnPath = false;
+        if (query.getStatus() == PathPlanner.Query.Status.FOUND) {
+            NavGraph.Path path = query.getPath();
+
+            // the last node is the dest pos' cell, arrive at the real dest pos instead
+            int last = path.getCount() - 1;
+            float reach2 = SETTINGS.PATH_WAYPOINT_RADIUS * SETTINGS.PATH_WAYPOINT_RADIUS;
+            while (waypoint < last && transform.getPos().dst2(path.getNodePosition(waypoint)) < reach2) {
+                ++waypoint;
+            }
+
+            if (waypoint < last) {
+                isOnPath = true;
+                updateDirAndDist();
+                seekForce.set(path.getNodePosition(waypoint)).sub(transform.getPos()).nor().scl(maxSpeed);
+                return seekForce.sub(movement.getVel()).scl(forceMult);
+            }
+        }
+        return super.getForce();
+    }
+
+    /**
+     * Following the path on the last getForce(), which already keeps off the blocks.
+     */
+    public boolean isOnPath() {
+        return isOnPath;
+    }
+
+    @Override
+    public void release() {
+        super.release();
+
+        PathPlanner.i().cancel(query);
+    }
+
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        waypoint = 1;
+        isOnPath = false;
+    }
+
+    @Override
+    public void finalize() {
+        super.finalize();
+
+        PathPlanner.i().cancel(query);
+    }
+}
@@ -14,6 +14,11 @@ public class SteeringPursue extends SteeringArrive {
 
     private GameObject targetGO;
 
+    // shared flow field direction, see getForce()
+    private Vector2 flowDir = new Vector2();
+    private Vector2 flowForce = new Vector2();
+    private boolean isOnFlowField = false;
+
     public SteeringPursue(GameObject targetGO) {
         super("SteeringPursue");
 
@@ -38,7 +43,7 @@ public class SteeringPursue extends SteeringArrive {
         if (!targetGO.equals(this.targetGO)) {
             this.targetGO = targetGO;
         }
-        targetTransform = (Transform) targetGO.getComponent("Transform");
+        targetTransform = targetGO.getComponent(Transform.class);
         setDestPos(targetTransform.getPos());
     }
 
@@ -50,12 +55,41 @@ public class SteeringPursue extends SteeringArrive {
         return false;
     }
 
+    /**
+     * Far from the target and the target is the FlowField's, seek along the field round the
+     * blocks, otherwise arrive straight at it.
+     * @return
+     */
     @Override
     public Vector2 getForce() {
         destPos.set(targetTransform.getPos());
+
+        isOnFlowField = false;
+        if (SETTINGS.FLOW_FIELD && targetGO == FlowField.i().getTarget()) {
+            updateDirAndDist();
+            if (dist > SETTINGS.SLOW_RADIUS
+                    && FlowField.i().sample(transform.getX(), transform.getY(), flowDir)) {
+                isOnFlowField = true;
+                return flowForce.set(flowDir).scl(maxSpeed).sub(movement.getVel()).scl(forceMult);
+            }
+        }
         return super.getForce();
     }
 
+    /**
+     * Steered by the flow field on the last getForce(), which already keeps off the blocks.
+     */
+    public boolean isOnFlowField() {
+        return isOnFlowField;
+    }
+
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        isOnFlowField = false;
+    }
+
     @Override
     public Vector2 getBaseForce() {
         return super.getForce();
@@ -0,0 +1,94 @@
+package com.singaporetech.eod.components.ai.btree;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.singaporetech.eod.components.ai.Brain;
+import com.singaporetech.eod.components.ai.Fsm;
+import com.singaporetech.eod.components.ai.FsmDef;
+
+/**
+ * Leaf that keeps the bug in a state for as long as the tree chooses it, with the same
+ * FsmDef actions as a state in assets/fsm, e.g.,
+ * state type:"PURSUE" enter:"SET_DEST_LAST,ANIM_RUN" act:"MOVE" exit:"SAVE_DEST,ANIM_OFF"
+ * - enter runs when a bug switches to it and exit when the bug switches to another, which act
+ *   a bug is in is kept on its blackboard
+ * - act runs every tick it's chosen, always RUNNING
+ * - action names are resolved on first use, nothing is allocated per tick
+ */
+public class Act extends LeafTask<BugBlackboard> {
+    private static final FsmDef.Action[] NONE = new FsmDef.Action[0];
+
+    @TaskAttribute(required = true)
+    public Fsm.StateType type;
+
+    @TaskAttribute
+    public String enter;
+
+    @TaskAttribute
+    public String act;
+
+    @TaskAttribute
+    public String exit;
+
+    private FsmDef.Action[] enterActions;
+    private FsmDef.Action[] actActions;
+    private FsmDef.Action[] exitActions;
+
+    @Override
+    public Status execute() {
+        BugBlackboard bb = getObject();
+        resolve();
+        bb.switchTo(this);
+
+        for (int i = 0; i < actActions.length; ++i) {
+            bb.brain.run(actActions[i], bb.dt);
+        }
+        return Status.RUNNING;
+    }
+
+    void enter(Brain brain) {
+        resolve();
+        for (int i = 0; i < enterActions.length; ++i) {
+            brain.run(enterActions[i], 0);
+        }
+    }
+
+    void exit(Brain brain) {
+        resolve();
+        for (int i = 0; i < exitActions.length; ++i) {
+            brain.run(exitActions[i], 0);
+        }
+    }
+
+    private void resolve() {
+        if (enterActions != null) {
+            return;
+        }
+        enterActions = parse(enter);
+        actActions = parse(act);
+        exitActions = parse(exit);
+    }
+
+    private static FsmDef.Action[] parse(String list) {
+        if (list == null || list.trim().isEmpty()) {
+            return NONE;
+        }
+        String[] names = list.split(",");
+        FsmDef.Action[] actions = new FsmDef.Action[names.length];
+        for (int i = 0; i < names.length; ++i) {
+            actions[i] = FsmDef.Action.valueOf(names[i].trim());
+        }
+        return actions;
+    }
+
+    @Override
+    protected Task<BugBlackboard> copyTo(Task<BugBlackboard> task) {
+        Act other = (Act) task;
+        other.type = type;
+        other.enter = enter;
+        other.act = act;
+        other.exit = exit;
+        return task;
+    }
+}
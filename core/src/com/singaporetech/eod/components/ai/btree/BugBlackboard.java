@@ -0,0 +1,49 @@
+package com.singaporetech.eod.components.ai.btree;
+
+import com.singaporetech.eod.components.ai.Brain;
+import com.singaporetech.eod.components.ai.Fsm;
+
+/**
+ * What one bug's behavior tree works on, the tree itself is shared by every bug.
+ * - the bug's Brain, which links its components and runs the FsmDef actions and events
+ * - the Act it's in, entered and not exited yet, so an act keeps going across ticks for this
+ *   bug whatever the shared tree did for the bugs in between
+ */
+public class BugBlackboard {
+    final Brain brain;
+    Act running;
+    float dt;
+
+    public BugBlackboard(Brain brain) {
+        this.brain = brain;
+    }
+
+    public void recycle() {
+        running = null;
+    }
+
+    /**
+     * StateType of the running act, IDLE if none.
+     */
+    public Fsm.StateType getState() {
+        return running == null ? Fsm.StateType.IDLE : running.type;
+    }
+
+    public void setDt(float dt) {
+        this.dt = dt;
+    }
+
+    /**
+     * Leave the running act for another, nothing to do if it's the same one.
+     */
+    void switchTo(Act act) {
+        if (running == act) {
+            return;
+        }
+        if (running != null) {
+            running.exit(brain);
+        }
+        running = act;
+        act.enter(brain);
+    }
+}
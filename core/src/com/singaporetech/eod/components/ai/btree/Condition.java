@@ -0,0 +1,26 @@
+package com.singaporetech.eod.components.ai.btree;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.singaporetech.eod.components.ai.FsmDef;
+
+/**
+ * Leaf that succeeds if an FsmDef event holds for the bug, e.g., condition event:"HEALTH_EMPTY".
+ * - checked by the bug's Brain, same as for an Fsm
+ */
+public class Condition extends LeafTask<BugBlackboard> {
+    @TaskAttribute(required = true)
+    public FsmDef.Event event;
+
+    @Override
+    public Status execute() {
+        return getObject().brain.check(event) ? Status.SUCCEEDED : Status.FAILED;
+    }
+
+    @Override
+    protected Task<BugBlackboard> copyTo(Task<BugBlackboard> task) {
+        ((Condition) task).event = event;
+        return task;
+    }
+}
@@ -0,0 +1,26 @@
+package com.singaporetech.eod.components.ai.btree;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.singaporetech.eod.components.ai.Fsm;
+
+/**
+ * Leaf that succeeds if the bug is in an act of the type, e.g., running type:"ATTACK".
+ * - for hysteresis, e.g., keep attacking until the target gets away
+ */
+public class Running extends LeafTask<BugBlackboard> {
+    @TaskAttribute(required = true)
+    public Fsm.StateType type;
+
+    @Override
+    public Status execute() {
+        return getObject().getState() == type ? Status.SUCCEEDED : Status.FAILED;
+    }
+
+    @Override
+    protected Task<BugBlackboard> copyTo(Task<BugBlackboard> task) {
+        ((Running) task).type = type;
+        return task;
+    }
+}
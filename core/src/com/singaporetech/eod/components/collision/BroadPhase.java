@@ -0,0 +1,54 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Common interface for the spatial structures the CollisionEngine can use to cull
+ * collidables before running the (expensive) narrowphase tests.
+ * - GRID works best for lots of similarly sized things spread out evenly
+ * - QUADTREE copes better with a few big static blocks mixed with swarms of small bugs
+ * - SWEEP_AND_PRUNE is cheapest when things are spread along one axis (e.g. corridors)
+ */
+public interface BroadPhase {
+    enum Type {GRID, QUADTREE, SWEEP_AND_PRUNE}
+
+    /**
+     * Gets handed the candidates along a cast.
+     */
+    interface RayCallback {
+        /**
+         * @return fraction of the cast still worth searching, e.g., that of the nearest hit so far
+         */
+        float reportCandidate(Collidable c);
+    }
+
+    void insert(Collidable c);
+    void remove(Collidable c);
+
+    /**
+     * Refresh a collidable after it has moved.
+     */
+    void update(Collidable c);
+
+    /**
+     * Append every collidable whose bounding circle may overlap the given box.
+     */
+    void query(float minX, float minY, float maxX, float maxY, Array<Collidable> out);
+
+    /**
+     * Append all pairs whose bounding boxes overlap, as consecutive entries,
+     * i.e., out[0] and out[1] is the first pair, out[2] and out[3] the second...
+     */
+    void getCandidatePairs(Array<Collidable> out);
+
+    /**
+     * Hand every collidable that may touch the segment from (x0, y0) to (x1, y1), fattened by
+     * radius, to the callback.
+     * - stops early once past the fraction the callback last returned where the structure allows
+     * @return the last fraction returned by the callback, or maxFraction
+     */
+    float raycast(float x0, float y0, float x1, float y1, float radius, float maxFraction, RayCallback callback);
+
+    int size();
+    void clear();
+}
@@ -0,0 +1,44 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Book-keeping a broadphase keeps for each collidable it holds.
+ * - caches the bounding circle so queries don't need to call back into the collidable
+ * - the remaining fields are only used by the structure that owns the proxy
+ */
+class BroadPhaseProxy {
+    final Collidable collidable;
+    final int id;
+    float x, y, radius;
+
+    // grid
+    long cellKey;
+    int castStamp;
+
+    // quadtree
+    LooseQuadtree.Node node;
+
+    BroadPhaseProxy(Collidable collidable, int id) {
+        this.collidable = collidable;
+        this.id = id;
+        refresh();
+    }
+
+    void refresh() {
+        Vector2 pos = collidable.getBoundingCirclePos();
+        x = pos.x;
+        y = pos.y;
+        radius = collidable.getBoundingCircleRadius();
+    }
+
+    boolean overlaps(float minX, float minY, float maxX, float maxY) {
+        return x + radius >= minX && x - radius <= maxX
+                && y + radius >= minY && y - radius <= maxY;
+    }
+
+    boolean overlaps(BroadPhaseProxy other) {
+        float reach = radius + other.radius;
+        return Math.abs(x - other.x) <= reach && Math.abs(y - other.y) <= reach;
+    }
+}
@@ -10,6 +10,8 @@ import com.singaporetech.eod.GameObject;
 public interface Collidable {
     boolean isStatic();
     boolean isCollidable();
+    int getCategory();
+    int getMask();
     GameObject getOwner();
     float getBoundingCircleRadius();
     Vector2 getBoundingCirclePos();
@@ -1,6 +1,5 @@
 package com.singaporetech.eod.components.collision;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Circle;
 import com.badlogic.gdx.math.Intersector;
@@ -10,6 +9,7 @@ import com.singaporetech.eod.CollisionEngine;
 import com.singaporetech.eod.GameObject;
 import com.singaporetech.eod.RenderEngine;
 import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.SlotMap;
 import com.singaporetech.eod.components.Transform;
 import com.singaporetech.eod.components.render.Renderable;
 import com.singaporetech.eod.components.render.RenderableDebug;
@@ -28,8 +28,13 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
     boolean isStatic = true;
     boolean isCollidable = true;
 
+    // collision layer this sits on and the layers its own queries look at
+    int category = CollisionLayer.STATIC;
+    int mask = CollisionLayer.NONE;
+
     // bounding circle
     Circle boundingCircle;
+    Vector2 boundingCirclePos = new Vector2();
     Vector2 collisionNorm = new Vector2(0, 0);
     Vector2 collisionAvoidTarget = new Vector2(0, 0);
     float collisionMag = 0;
@@ -47,13 +52,27 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
     Vector2 prevCollisionForwardPos = collisionForwardPosL;
     float collisionVecLen = SETTINGS.COLLISION_FORWARD_LEN;
 
+    // registry handles, NONE when not registered
+    long collidableHandle = SlotMap.NONE;
+    long debugHandle = SlotMap.NONE;
+
+    // scratch for the intersection tests so queries don't allocate
+    Vector2 disp = new Vector2();
+
     public Collider() {
         this(true, true);
     }
     public Collider(boolean isCollidable, boolean isStatic) {
+        this(isCollidable, isStatic,
+                isStatic ? CollisionLayer.STATIC : CollisionLayer.ENEMY,
+                isStatic ? CollisionLayer.NONE : CollisionLayer.STATIC);
+    }
+    public Collider(boolean isCollidable, boolean isStatic, int category, int mask) {
         super("Collider");
         this.isCollidable = isCollidable;
         this.isStatic = isStatic;
+        this.category = category;
+        this.mask = mask;
     }
 
     @Override
@@ -66,7 +85,7 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
         super.init(owner);
 
         // setup links
-        transform = (Transform) owner.getComponent("Transform");
+        transform = owner.getComponent(Transform.class);
 
         // todo: do sprite sheet if no sprite, perhaps create common interface
         renderable = owner.getRenderable();
@@ -79,15 +98,23 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
          */
         // init bounding circle
         Rectangle rect = renderable.getBoundingBox();
-        boundingCircle = new Circle(transform.getPos(), rect.getWidth()/2);
+        if (boundingCircle == null) {
+            boundingCircle = new Circle();
+        }
+        boundingCircle.set(transform.getX(), transform.getY(), rect.getWidth()/2);
+        boundingCirclePos.set(boundingCircle.x, boundingCircle.y);
 
         // add to collision engine
-        CollisionEngine.i().addCollidable(this);
-        RenderEngine.i().addRenderableDebug(this);
+        collidableHandle = CollisionEngine.i().addCollidable(this);
+        debugHandle = RenderEngine.i().addRenderableDebug(this);
     }
 
+    /**
+     * Shared vector, don't modify.
+     * @return
+     */
     public Vector2 getBoundingCirclePos() {
-        return new Vector2(boundingCircle.x, boundingCircle.y);
+        return boundingCirclePos;
     }
 
     public float getBoundingCircleRadius() {
@@ -102,6 +129,10 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
         this.collisionVecLen = collisionVecLen;
     }
 
+    public float getCollisionVecLen() {
+        return collisionVecLen;
+    }
+
     @Override
     public boolean isStatic() {
         return isStatic;
@@ -112,6 +143,20 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
         return isCollidable;
     }
 
+    @Override
+    public int getCategory() {
+        return category;
+    }
+
+    @Override
+    public int getMask() {
+        return mask;
+    }
+
+    public void setMask(int mask) {
+        this.mask = mask;
+    }
+
     public float getCollisionMag() {
         return collisionMag;
     }
@@ -120,8 +165,15 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
     public void update(float dt) {
         super.update(dt);
 
+        // static colliders never move, so the bounding circle set in init stays valid
+        // and they never probe with a fan
+        if (isStatic) {
+            return;
+        }
+
         // bounding circle tp match transform position and rotation
         boundingCircle.setPosition(transform.getPos());
+        boundingCirclePos.set(boundingCircle.x, boundingCircle.y);
         collisionVec.set(transform.getForward()).scl(collisionVecLen);
         collisionVec0.set(transform.getForward()).scl(getBoundingCircleRadius());
         collisionVecL.set(collisionVec).rotate(SETTINGS.COLLISION_VEC_OFFSET_DEG);
@@ -130,6 +182,9 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
         collisionForwardPos0.set(transform.getPos()).add(collisionVec0);
         collisionForwardPosL.set(transform.getPos()).add(collisionVecL);
         collisionForwardPosR.set(transform.getPos()).add(collisionVecR);
+
+        // keep broadphase in sync with the new position
+        CollisionEngine.i().updateCollidable(this);
     }
 
     @Override
@@ -145,12 +200,15 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
             RenderEngine.i().getDebugRenderer().circle(boundingCircle.x, boundingCircle.y, boundingCircle.radius);
 
             // draw the collision forward vectors
-            RenderEngine.i().getDebugRenderer().setColor(1, 1, 1, 1);
-            RenderEngine.i().getDebugRenderer().line(transform.getPos(), collisionForwardPos);
-            RenderEngine.i().getDebugRenderer().setColor(1, 1, 1, 1);
-            RenderEngine.i().getDebugRenderer().line(transform.getPos(), collisionForwardPosL);
-            RenderEngine.i().getDebugRenderer().setColor(1, 1, 1, 1);
-            RenderEngine.i().getDebugRenderer().line(transform.getPos(), collisionForwardPosR);
+            // - static colliders don't have a fan
+            if (!isStatic) {
+                RenderEngine.i().getDebugRenderer().setColor(1, 1, 1, 1);
+                RenderEngine.i().getDebugRenderer().line(transform.getPos(), collisionForwardPos);
+                RenderEngine.i().getDebugRenderer().setColor(1, 1, 1, 1);
+                RenderEngine.i().getDebugRenderer().line(transform.getPos(), collisionForwardPosL);
+                RenderEngine.i().getDebugRenderer().setColor(1, 1, 1, 1);
+                RenderEngine.i().getDebugRenderer().line(transform.getPos(), collisionForwardPosR);
+            }
 
 
             RenderEngine.i().getDebugRenderer().end();
@@ -179,93 +237,109 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
      */
     @Override
     public Vector2 getCollisionNorm(Collidable other) {
-        Vector2 disp = new Vector2();
-        float dist;
-
-        // calc collision magnitude
-        // - closer means stronger
-        collisionMag = SETTINGS.COLLISION_FORCE * 1/getBoundingCirclePos().dst(other.getBoundingCirclePos());
-
-        // check collision left fan edge
-        dist = Intersector.intersectSegmentCircleDisplace(transform.getPos(), collisionForwardPosL, other.getBoundingCirclePos(), other.getBoundingCircleRadius(), disp);
-        if (dist != Float.POSITIVE_INFINITY) {
-            prevCollisionForwardPos = collisionForwardPosL;
-            collisionNorm.set(collisionForwardPosR).sub(other.getBoundingCirclePos()).nor();
-
-            Gdx.app.log(TAG, owner.getName() + ": COLLIDED LEFT: pos=" + transform.getPos() + " collisionMag=" + collisionMag + " colNorm=" + collisionNorm);
-
-            return collisionNorm;
-        }
-
-        // check collision right fan edge
-        dist = Intersector.intersectSegmentCircleDisplace(transform.getPos(), collisionForwardPosR, other.getBoundingCirclePos(), other.getBoundingCircleRadius(), disp);
-        if (dist != Float.POSITIVE_INFINITY) {
-            prevCollisionForwardPos = collisionForwardPosR;
-            collisionNorm.set(collisionForwardPosL).sub(other.getBoundingCirclePos()).nor();
-
-            Gdx.app.log(TAG, owner.getName() + ": COLLIDED RIGHT: pos=" + transform.getPos() + " collisionMag=" + collisionMag + " colNorm=" + collisionNorm);
+        return getCollisionNorm(other, getHitEdge(other));
+    }
 
-            return collisionNorm;
+    /**
+     * Same as above but for a fan edge already known to hit, e.g., from the batched narrowphase
+     * @param other
+     * @param edge one of the FanNarrowPhase.EDGE_ constants
+     * @return null if no intersection
+     */
+    public Vector2 getCollisionNorm(Collidable other, int edge) {
+        if (edge == FanNarrowPhase.EDGE_NONE) {
+            return null;
         }
+        Vector2 otherPos = other.getBoundingCirclePos();
 
-        // check with center edge
-        dist = Intersector.intersectSegmentCircleDisplace(transform.getPos(), collisionForwardPos, other.getBoundingCirclePos(), other.getBoundingCircleRadius(), disp);
-        if (dist != Float.POSITIVE_INFINITY) {
-            collisionNorm.set(prevCollisionForwardPos).sub(other.getBoundingCirclePos()).nor();
+        // calc collision magnitude
+        // - closer means stronger
+        collisionMag = SETTINGS.COLLISION_FORCE * 1/boundingCirclePos.dst(otherPos);
 
-            Gdx.app.log(TAG, owner.getName() + ": COLLIDED CENTER: pos=" + transform.getPos() + " collisionMag=" + collisionMag + " colNorm=" + collisionNorm);
+        setCollisionNorm(otherPos, edge);
 
-            return collisionNorm;
-        }
+        // Gdx.app.log(TAG, owner.getName() + ": COLLIDED edge=" + edge + ": pos=" + transform.getPos() + " collisionMag=" + collisionMag + " colNorm=" + collisionNorm);
 
-        // else no collisions
-        return null;
+        return collisionNorm;
     }
 
     public Vector2 getCollisionAvoidTarget(Collidable other) {
-        Vector2 disp = new Vector2();
-        float dist;
+        return getCollisionAvoidTarget(other, getHitEdge(other));
+    }
+
+    /**
+     * Avoid target for a fan edge already known to hit, e.g., from the batched narrowphase
+     * @param other
+     * @param edge one of the FanNarrowPhase.EDGE_ constants
+     * @return null if no intersection
+     */
+    public Vector2 getCollisionAvoidTarget(Collidable other, int edge) {
+        if (edge == FanNarrowPhase.EDGE_NONE) {
+            return null;
+        }
+        Vector2 otherPos = other.getBoundingCirclePos();
 
         // calc collision magnitude
         collisionMag = SETTINGS.COLLISION_TARGET_OFFSET + getBoundingCircleRadius();
 
-        // check collision left fan edge
-        dist = Intersector.intersectSegmentCircleDisplace(transform.getPos(), collisionForwardPosL, other.getBoundingCirclePos(), other.getBoundingCircleRadius(), disp);
-        if (dist != Float.POSITIVE_INFINITY) {
-            prevCollisionForwardPos = collisionForwardPosL;
-            collisionNorm.set(collisionForwardPosR).sub(other.getBoundingCirclePos()).nor();
-            collisionAvoidTarget.set(collisionNorm).scl(collisionMag).add(other.getBoundingCirclePos());
+        setCollisionNorm(otherPos, edge);
+        collisionAvoidTarget.set(collisionNorm).scl(collisionMag).add(otherPos);
 
-            // Gdx.app.log(TAG, owner.getName() + ": COLLIDED LEFT: pos=" + transform.getPos() + " collisionMag=" + collisionMag + " collisionAvoidTarget=" + collisionAvoidTarget);
+        // Gdx.app.log(TAG, owner.getName() + ": COLLIDED edge=" + edge + ": pos=" + transform.getPos() + " collisionMag=" + collisionMag + " collisionAvoidTarget=" + collisionAvoidTarget);
 
-            return collisionAvoidTarget;
-        }
+        return collisionAvoidTarget;
+    }
 
-        // check collision right fan edge
-        dist = Intersector.intersectSegmentCircleDisplace(transform.getPos(), collisionForwardPosR, other.getBoundingCirclePos(), other.getBoundingCircleRadius(), disp);
-        if (dist != Float.POSITIVE_INFINITY) {
-            prevCollisionForwardPos = collisionForwardPosR;
-            collisionNorm.set(collisionForwardPosL).sub(other.getBoundingCirclePos()).nor();
-            collisionAvoidTarget.set(collisionNorm).scl(collisionMag).add(other.getBoundingCirclePos());
+    /**
+     * Test this collider's fan against a whole batch of candidates at once.
+     * @param batch
+     * @return index into the batch of the nearest hit, or -1, see batch.getHitEdge() for the edge
+     */
+    public int testFan(FanNarrowPhase batch) {
+        return batch.test(transform.getX(), transform.getY(),
+                collisionForwardPosL.x, collisionForwardPosL.y,
+                collisionForwardPosR.x, collisionForwardPosR.y,
+                collisionForwardPos.x, collisionForwardPos.y);
+    }
 
-            // Gdx.app.log(TAG, owner.getName() + ": COLLIDED RIGHT: pos=" + transform.getPos() + " collisionMag=" + collisionMag + " collisionAvoidTarget=" + collisionAvoidTarget);
+    /**
+     * Which fan edge hits other, checked left, right then centre.
+     */
+    private int getHitEdge(Collidable other) {
+        Vector2 otherPos = other.getBoundingCirclePos();
+        float radius = other.getBoundingCircleRadius();
 
-            return collisionAvoidTarget;
+        if (Intersector.intersectSegmentCircleDisplace(transform.getPos(), collisionForwardPosL, otherPos, radius, disp) != Float.POSITIVE_INFINITY) {
+            return FanNarrowPhase.EDGE_LEFT;
         }
-
-        // check with center edge
-        dist = Intersector.intersectSegmentCircleDisplace(transform.getPos(), collisionForwardPos, other.getBoundingCirclePos(), other.getBoundingCircleRadius(), disp);
-        if (dist != Float.POSITIVE_INFINITY) {
-            collisionNorm.set(prevCollisionForwardPos).sub(other.getBoundingCirclePos()).nor();
-            collisionAvoidTarget.set(collisionNorm).scl(collisionMag).add(other.getBoundingCirclePos());
-
-            // Gdx.app.log(TAG, owner.getName() + ": COLLIDED CENTER: pos=" + transform.getPos() + " collisionMag=" + collisionMag + " collisionAvoidTarget=" + collisionAvoidTarget);
-
-            return collisionAvoidTarget;
+        if (Intersector.intersectSegmentCircleDisplace(transform.getPos(), collisionForwardPosR, otherPos, radius, disp) != Float.POSITIVE_INFINITY) {
+            return FanNarrowPhase.EDGE_RIGHT;
         }
+        if (Intersector.intersectSegmentCircleDisplace(transform.getPos(), collisionForwardPos, otherPos, radius, disp) != Float.POSITIVE_INFINITY) {
+            return FanNarrowPhase.EDGE_CENTRE;
+        }
+        return FanNarrowPhase.EDGE_NONE;
+    }
 
-        // else no collisions
-        return null;
+    /**
+     * Norm points away from the obstacle towards the side of the fan that did not hit.
+     * - a centre hit keeps turning the same way as the last side hit
+     */
+    private void setCollisionNorm(Vector2 otherPos, int edge) {
+        switch (edge) {
+            case FanNarrowPhase.EDGE_LEFT:
+                prevCollisionForwardPos = collisionForwardPosL;
+                collisionNorm.set(collisionForwardPosR).sub(otherPos).nor();
+                break;
+            case FanNarrowPhase.EDGE_RIGHT:
+                prevCollisionForwardPos = collisionForwardPosR;
+                collisionNorm.set(collisionForwardPosL).sub(otherPos).nor();
+                break;
+            case FanNarrowPhase.EDGE_CENTRE:
+            default:
+                collisionNorm.set(prevCollisionForwardPos).sub(otherPos).nor();
+                break;
+        }
     }
 
     /**
@@ -279,12 +353,32 @@ public class Collider extends com.singaporetech.eod.components.Component impleme
         return boundingCircle.contains(pos);
     }
 
+    @Override
+    public void release() {
+        super.release();
+
+        CollisionEngine.i().removeCollidable(collidableHandle);
+        RenderEngine.i().removeRenderableDebug(debugHandle);
+        collidableHandle = debugHandle = SlotMap.NONE;
+    }
+
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        collisionNorm.setZero();
+        collisionAvoidTarget.setZero();
+        collisionMag = 0;
+        collisionVecLen = SETTINGS.COLLISION_FORWARD_LEN;
+    }
+
     @Override
     public void finalize() {
         super.finalize();
 
         // remove to collision engine
-        CollisionEngine.i().removeCollidable(this);
-        RenderEngine.i().removeRenderableDebug(this);
+        CollisionEngine.i().removeCollidable(collidableHandle);
+        RenderEngine.i().removeRenderableDebug(debugHandle);
+        collidableHandle = debugHandle = SlotMap.NONE;
     }
 }
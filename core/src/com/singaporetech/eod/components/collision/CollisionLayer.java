@@ -0,0 +1,16 @@
+package com.singaporetech.eod.components.collision;
+
+/**
+ * Collision layer bits.
+ * - a collider sits on exactly one layer (its category)
+ * - its mask says which layers its own queries look at
+ */
+public final class CollisionLayer {
+    public static final int NONE = 0;
+    public static final int STATIC = 1;
+    public static final int PLAYER = 1 << 1;
+    public static final int ENEMY = 1 << 2;
+    public static final int ALL = -1;
+
+    private CollisionLayer() {}
+}
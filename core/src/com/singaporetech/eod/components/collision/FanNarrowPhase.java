@@ -0,0 +1,147 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Batched narrowphase for a collider's forward fan against many circles.
+ * - candidate circles are copied into flat float arrays (struct of arrays) so the test
+ *   is one tight loop over primitives that the JIT can unroll/vectorise
+ * - a bounding distance check rejects most candidates before the segment tests
+ */
+public class FanNarrowPhase {
+    public static final int EDGE_NONE = -1;
+    public static final int EDGE_LEFT = 0;
+    public static final int EDGE_RIGHT = 1;
+    public static final int EDGE_CENTRE = 2;
+
+    private float[] xs = new float[64];
+    private float[] ys = new float[64];
+    private float[] radii = new float[64];
+    private Collidable[] collidables = new Collidable[64];
+    private int size = 0;
+
+    private int hitEdge = EDGE_NONE;
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(Collidable c) {
+        if (size == xs.length) {
+            grow();
+        }
+        Vector2 pos = c.getBoundingCirclePos();
+        xs[size] = pos.x;
+        ys[size] = pos.y;
+        radii[size] = c.getBoundingCircleRadius();
+        collidables[size] = c;
+        ++size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Collidable get(int i) {
+        return collidables[i];
+    }
+
+    /**
+     * Which fan edge the last hit returned by test() was on.
+     * @return one of the EDGE_ constants
+     */
+    public int getHitEdge() {
+        return hitEdge;
+    }
+
+    /**
+     * Test a fan of three segments all starting at (ox, oy) against the whole batch.
+     * - edges are checked in the order left, right, centre like the per object test
+     * @return index of the nearest circle hit, or -1 if none
+     */
+    public int test(float ox, float oy,
+                    float leftX, float leftY, float rightX, float rightY, float centreX, float centreY) {
+        // segment vectors relative to the origin
+        float lx = leftX - ox, ly = leftY - oy;
+        float rx = rightX - ox, ry = rightY - oy;
+        float cx = centreX - ox, cy = centreY - oy;
+        float invL = safeInv(lx * lx + ly * ly);
+        float invR = safeInv(rx * rx + ry * ry);
+        float invC = safeInv(cx * cx + cy * cy);
+        float reach = (float) Math.sqrt(Math.max(lx * lx + ly * ly, Math.max(rx * rx + ry * ry, cx * cx + cy * cy)));
+
+        int nearest = -1;
+        float nearestDist2 = Float.MAX_VALUE;
+        int nearestEdge = EDGE_NONE;
+
+        final float[] xs = this.xs, ys = this.ys, radii = this.radii;
+        for (int i = 0; i < size; ++i) {
+            float dx = xs[i] - ox;
+            float dy = ys[i] - oy;
+            float r = radii[i];
+            float d2 = dx * dx + dy * dy;
+
+            // early reject, too far for any of the segments to reach
+            float bound = reach + r;
+            if (d2 >= bound * bound || d2 >= nearestDist2) {
+                continue;
+            }
+
+            float r2 = r * r;
+            int edge = EDGE_NONE;
+            if (segDist2(dx, dy, lx, ly, invL) < r2) {
+                edge = EDGE_LEFT;
+            }
+            else if (segDist2(dx, dy, rx, ry, invR) < r2) {
+                edge = EDGE_RIGHT;
+            }
+            else if (segDist2(dx, dy, cx, cy, invC) < r2) {
+                edge = EDGE_CENTRE;
+            }
+
+            if (edge != EDGE_NONE) {
+                nearest = i;
+                nearestDist2 = d2;
+                nearestEdge = edge;
+            }
+        }
+
+        hitEdge = nearestEdge;
+        return nearest;
+    }
+
+    /**
+     * Squared distance from point (px, py) to the segment from the origin to (sx, sy).
+     * - like Intersector.intersectSegmentCircleDisplace, points that project outside the
+     *   segment count as a miss, so results match the per object test
+     */
+    private static float segDist2(float px, float py, float sx, float sy, float invLen2) {
+        float t = (px * sx + py * sy) * invLen2;
+        if (t < 0 || t > 1) {
+            return Float.POSITIVE_INFINITY;
+        }
+        float ex = px - t * sx;
+        float ey = py - t * sy;
+        return ex * ex + ey * ey;
+    }
+
+    private static float safeInv(float len2) {
+        return len2 > 0 ? 1f / len2 : 0;
+    }
+
+    private void grow() {
+        int capacity = xs.length * 2;
+        float[] newXs = new float[capacity];
+        float[] newYs = new float[capacity];
+        float[] newRadii = new float[capacity];
+        Collidable[] newCollidables = new Collidable[capacity];
+        System.arraycopy(xs, 0, newXs, 0, size);
+        System.arraycopy(ys, 0, newYs, 0, size);
+        System.arraycopy(radii, 0, newRadii, 0, size);
+        System.arraycopy(collidables, 0, newCollidables, 0, size);
+        xs = newXs;
+        ys = newYs;
+        radii = newRadii;
+        collidables = newCollidables;
+    }
+}
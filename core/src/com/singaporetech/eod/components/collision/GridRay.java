@@ -0,0 +1,58 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Steps through the grid cells a segment crosses, in order (DDA).
+ * - coordinates are in cell units, i.e., already scaled by 1/cellSize
+ */
+final class GridRay {
+    int cx, cy;
+
+    // fraction along the segment where it enters the current cell
+    float tEntry;
+
+    private int stepX, stepY;
+    private float tMaxX, tMaxY, tDeltaX, tDeltaY;
+    private boolean isFirst;
+
+    void init(float x0, float y0, float x1, float y1) {
+        cx = MathUtils.floor(x0);
+        cy = MathUtils.floor(y0);
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+
+        stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        tDeltaX = stepX != 0 ? Math.abs(1 / dx) : Float.MAX_VALUE;
+        tDeltaY = stepY != 0 ? Math.abs(1 / dy) : Float.MAX_VALUE;
+        tMaxX = stepX > 0 ? (cx + 1 - x0) / dx : (stepX < 0 ? (cx - x0) / dx : Float.MAX_VALUE);
+        tMaxY = stepY > 0 ? (cy + 1 - y0) / dy : (stepY < 0 ? (cy - y0) / dy : Float.MAX_VALUE);
+
+        tEntry = 0;
+        isFirst = true;
+    }
+
+    /**
+     * Move on to the next cell.
+     * @return false once past the end of the segment
+     */
+    boolean next() {
+        if (isFirst) {
+            isFirst = false;
+            return true;
+        }
+
+        if (tMaxX < tMaxY) {
+            tEntry = tMaxX;
+            cx += stepX;
+            tMaxX += tDeltaX;
+        }
+        else {
+            tEntry = tMaxY;
+            cy += stepY;
+            tMaxY += tDeltaY;
+        }
+        return tEntry <= 1;
+    }
+}
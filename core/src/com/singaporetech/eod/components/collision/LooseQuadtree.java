@@ -0,0 +1,275 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.singaporetech.eod.SETTINGS;
+
+/**
+ * Loose quadtree broadphase.
+ * - a node's loose bounds are twice its tight bounds, so a circle is stored in the deepest
+ *   node whose tight bounds contain its centre and whose half size is at least its radius
+ * - this means big static blocks stay near the root while small bugs sink to the leaves,
+ *   and moving a bug only touches its own node unless it crosses a node border
+ */
+public class LooseQuadtree implements BroadPhase {
+    private static final String TAG = "LooseQuadtree";
+    private static final int MAX_DEPTH = 6;
+
+    static class Node {
+        final Node parent;
+        final float cx, cy, half;
+        final int depth;
+        final Node[] children = new Node[4];
+        final Array<BroadPhaseProxy> items = new Array<BroadPhaseProxy>(false, 4);
+        int count = 0; // items in this subtree
+
+        Node(Node parent, float cx, float cy, float half, int depth) {
+            this.parent = parent;
+            this.cx = cx;
+            this.cy = cy;
+            this.half = half;
+            this.depth = depth;
+        }
+
+        boolean containsCentre(float x, float y) {
+            return x >= cx - half && x < cx + half && y >= cy - half && y < cy + half;
+        }
+
+        boolean looseOverlaps(float minX, float minY, float maxX, float maxY) {
+            float loose = 2 * half;
+            return cx + loose >= minX && cx - loose <= maxX && cy + loose >= minY && cy - loose <= maxY;
+        }
+    }
+
+    private final Node root;
+    private final IdentityMap<Collidable, BroadPhaseProxy> proxies = new IdentityMap<Collidable, BroadPhaseProxy>();
+    private final Array<Node> stack = new Array<Node>(false, 64);
+    private int nextId = 0;
+
+    /**
+     * Covers the viewport with some margin for things walking in from off screen.
+     */
+    public LooseQuadtree() {
+        this(SETTINGS.VIEWPORT_WIDTH / 2f, SETTINGS.VIEWPORT_HEIGHT / 2f, SETTINGS.VIEWPORT_HEIGHT);
+    }
+
+    public LooseQuadtree(float cx, float cy, float half) {
+        root = new Node(null, cx, cy, half, 0);
+    }
+
+    @Override
+    public void insert(Collidable c) {
+        if (proxies.containsKey(c)) {
+            return;
+        }
+        BroadPhaseProxy proxy = new BroadPhaseProxy(c, nextId++);
+        proxies.put(c, proxy);
+        addToNode(proxy, findNode(proxy));
+    }
+
+    @Override
+    public void remove(Collidable c) {
+        BroadPhaseProxy proxy = proxies.remove(c);
+        if (proxy != null) {
+            removeFromNode(proxy);
+        }
+    }
+
+    @Override
+    public void update(Collidable c) {
+        BroadPhaseProxy proxy = proxies.get(c);
+        if (proxy == null) {
+            return;
+        }
+        proxy.refresh();
+
+        // only move if it no longer belongs in the same node
+        Node node = findNode(proxy);
+        if (node != proxy.node) {
+            removeFromNode(proxy);
+            addToNode(proxy, node);
+        }
+    }
+
+    @Override
+    public void query(float minX, float minY, float maxX, float maxY, Array<Collidable> out) {
+        stack.clear();
+        stack.add(root);
+        while (stack.size > 0) {
+            Node node = stack.pop();
+
+            for (int i = 0; i < node.items.size; ++i) {
+                BroadPhaseProxy proxy = node.items.get(i);
+                if (proxy.overlaps(minX, minY, maxX, maxY)) {
+                    out.add(proxy.collidable);
+                }
+            }
+
+            for (Node child : node.children) {
+                if (child != null && child.count > 0 && child.looseOverlaps(minX, minY, maxX, maxY)) {
+                    stack.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Each item queries the tree with its own box, ids stop a pair being added twice.
+     * - siblings' loose bounds overlap, so this can't stop at the item's own subtree
+     * @param out
+     */
+    @Override
+    public void getCandidatePairs(Array<Collidable> out) {
+        for (BroadPhaseProxy a : proxies.values()) {
+            float minX = a.x - a.radius, maxX = a.x + a.radius;
+            float minY = a.y - a.radius, maxY = a.y + a.radius;
+
+            stack.clear();
+            stack.add(root);
+            while (stack.size > 0) {
+                Node node = stack.pop();
+
+                for (int i = 0; i < node.items.size; ++i) {
+                    BroadPhaseProxy b = node.items.get(i);
+                    if (a.id < b.id && a.overlaps(b)) {
+                        out.add(a.collidable);
+                        out.add(b.collidable);
+                    }
+                }
+
+                for (Node child : node.children) {
+                    if (child != null && child.count > 0 && child.looseOverlaps(minX, minY, maxX, maxY)) {
+                        stack.add(child);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Only visits nodes whose loose bounds the cast enters before maxFraction.
+     * - the root is always visited, what findNode() leaves there can stick out of its bounds
+     */
+    @Override
+    public float raycast(float x0, float y0, float x1, float y1, float radius, float maxFraction, RayCallback callback) {
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+
+        stack.clear();
+        stack.add(root);
+        while (stack.size > 0) {
+            Node node = stack.pop();
+            float loose = 2 * node.half + radius;
+            if (node != root && entryFraction(x0, y0, dx, dy, node.cx - loose, node.cy - loose, node.cx + loose, node.cy + loose) > maxFraction) {
+                continue;
+            }
+
+            for (int i = 0; i < node.items.size; ++i) {
+                maxFraction = callback.reportCandidate(node.items.get(i).collidable);
+            }
+
+            for (Node child : node.children) {
+                if (child != null && child.count > 0) {
+                    stack.add(child);
+                }
+            }
+        }
+        return maxFraction;
+    }
+
+    /**
+     * Slab test of the segment against a box.
+     * @return fraction where the segment enters the box, 0 if it starts inside, > 1 if it misses
+     */
+    private static float entryFraction(float x0, float y0, float dx, float dy,
+                                       float minX, float minY, float maxX, float maxY) {
+        float tMin = 0, tMax = 1;
+        if (dx == 0) {
+            if (x0 < minX || x0 > maxX) {
+                return Float.MAX_VALUE;
+            }
+        }
+        else {
+            float t0 = (minX - x0) / dx, t1 = (maxX - x0) / dx;
+            tMin = Math.max(tMin, Math.min(t0, t1));
+            tMax = Math.min(tMax, Math.max(t0, t1));
+        }
+        if (dy == 0) {
+            if (y0 < minY || y0 > maxY) {
+                return Float.MAX_VALUE;
+            }
+        }
+        else {
+            float t0 = (minY - y0) / dy, t1 = (maxY - y0) / dy;
+            tMin = Math.max(tMin, Math.min(t0, t1));
+            tMax = Math.min(tMax, Math.max(t0, t1));
+        }
+        return tMin <= tMax ? tMin : Float.MAX_VALUE;
+    }
+
+    @Override
+    public int size() {
+        return proxies.size;
+    }
+
+    @Override
+    public void clear() {
+        proxies.clear();
+        clearNode(root);
+        nextId = 0;
+    }
+
+    private void clearNode(Node node) {
+        node.items.clear();
+        node.count = 0;
+        for (int i = 0; i < 4; ++i) {
+            node.children[i] = null;
+        }
+    }
+
+    /**
+     * Walk down while the circle still fits in a child's loose bounds.
+     * - anything outside the root just stays in the root
+     */
+    private Node findNode(BroadPhaseProxy proxy) {
+        Node node = root;
+        if (!root.containsCentre(proxy.x, proxy.y)) {
+            return root;
+        }
+
+        while (node.depth < MAX_DEPTH && proxy.radius <= node.half / 2) {
+            int quadrant = (proxy.x >= node.cx ? 1 : 0) + (proxy.y >= node.cy ? 2 : 0);
+            Node child = node.children[quadrant];
+            if (child == null) {
+                float childHalf = node.half / 2;
+                child = new Node(node,
+                        node.cx + ((quadrant & 1) != 0 ? childHalf : -childHalf),
+                        node.cy + ((quadrant & 2) != 0 ? childHalf : -childHalf),
+                        childHalf, node.depth + 1);
+                node.children[quadrant] = child;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private void addToNode(BroadPhaseProxy proxy, Node node) {
+        proxy.node = node;
+        node.items.add(proxy);
+        for (Node n = node; n != null; n = n.parent) {
+            ++n.count;
+        }
+    }
+
+    private void removeFromNode(BroadPhaseProxy proxy) {
+        Node node = proxy.node;
+        if (node == null) {
+            return;
+        }
+        node.items.removeValue(proxy, true);
+        for (Node n = node; n != null; n = n.parent) {
+            --n.count;
+        }
+        proxy.node = null;
+    }
+}
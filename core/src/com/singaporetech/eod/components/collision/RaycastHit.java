@@ -0,0 +1,62 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.math.Vector2;
+import com.singaporetech.eod.GameObject;
+
+/**
+ * Result of a cast on the CollisionEngine.
+ * - reuse one per caller, the engine only writes into it
+ */
+public class RaycastHit {
+    private Collidable collidable;
+    private float fraction = 1;
+    private final Vector2 point = new Vector2();
+    private final Vector2 normal = new Vector2();
+
+    public void reset() {
+        collidable = null;
+        fraction = 1;
+        point.setZero();
+        normal.setZero();
+    }
+
+    public void set(Collidable collidable, float fraction, float pointX, float pointY, float normalX, float normalY) {
+        this.collidable = collidable;
+        this.fraction = fraction;
+        point.set(pointX, pointY);
+        normal.set(normalX, normalY);
+    }
+
+    public boolean isHit() {
+        return collidable != null;
+    }
+
+    public Collidable getCollidable() {
+        return collidable;
+    }
+
+    public GameObject getOwner() {
+        return collidable == null ? null : collidable.getOwner();
+    }
+
+    /**
+     * How far along the cast the hit is, 0 at the start and 1 at the end.
+     */
+    public float getFraction() {
+        return fraction;
+    }
+
+    /**
+     * Contact point on the surface of what was hit.
+     */
+    public Vector2 getPoint() {
+        return point;
+    }
+
+    /**
+     * Surface normal at the contact point, pointing back towards the cast.
+     */
+    public Vector2 getNormal() {
+        return normal;
+    }
+}
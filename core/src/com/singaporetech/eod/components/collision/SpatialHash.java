@@ -0,0 +1,232 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.LongMap;
+import com.singaporetech.eod.SETTINGS;
+
+/**
+ * Uniform grid broadphase for collidables.
+ * - each collidable is binned by the centre of its bounding circle
+ * - cell size is the diameter of the largest bounding circle, so a query only needs to
+ *   look one extra ring of cells out to catch circles that overlap from a neighbour
+ */
+public class SpatialHash implements BroadPhase {
+    private static final String TAG = "SpatialHash";
+
+    private float cellSize = SETTINGS.COLLISION_MIN_CELL_SIZE;
+    private float invCellSize = 1f / cellSize;
+    private float maxRadius = 0;
+    private int nextId = 0;
+    private int castStamp = 0;
+    private final GridRay ray = new GridRay();
+
+    private final LongMap<Array<BroadPhaseProxy>> cells = new LongMap<Array<BroadPhaseProxy>>();
+    private final IdentityMap<Collidable, BroadPhaseProxy> proxies = new IdentityMap<Collidable, BroadPhaseProxy>();
+
+    @Override
+    public void insert(Collidable c) {
+        if (proxies.containsKey(c)) {
+            return;
+        }
+
+        BroadPhaseProxy proxy = new BroadPhaseProxy(c, nextId++);
+        proxies.put(c, proxy);
+
+        // grow the cells if this is the biggest thing seen so far
+        if (proxy.radius > maxRadius) {
+            maxRadius = proxy.radius;
+            float newCellSize = Math.max(2 * maxRadius, SETTINGS.COLLISION_MIN_CELL_SIZE);
+            if (newCellSize != cellSize) {
+                cellSize = newCellSize;
+                invCellSize = 1f / cellSize;
+                rebuild();
+                return;
+            }
+        }
+
+        proxy.cellKey = keyOf(proxy.x, proxy.y);
+        getOrCreateCell(proxy.cellKey).add(proxy);
+    }
+
+    @Override
+    public void remove(Collidable c) {
+        BroadPhaseProxy proxy = proxies.remove(c);
+        if (proxy != null) {
+            Array<BroadPhaseProxy> cell = cells.get(proxy.cellKey);
+            if (cell != null) {
+                cell.removeValue(proxy, true);
+            }
+        }
+    }
+
+    /**
+     * Rebin a collidable after it has moved.
+     * @param c
+     */
+    @Override
+    public void update(Collidable c) {
+        BroadPhaseProxy proxy = proxies.get(c);
+        if (proxy == null) {
+            return;
+        }
+
+        proxy.refresh();
+        long key = keyOf(proxy.x, proxy.y);
+        if (key != proxy.cellKey) {
+            Array<BroadPhaseProxy> cell = cells.get(proxy.cellKey);
+            if (cell != null) {
+                cell.removeValue(proxy, true);
+            }
+            proxy.cellKey = key;
+            getOrCreateCell(key).add(proxy);
+        }
+    }
+
+    /**
+     * Collect every collidable whose bounding circle may overlap the given box.
+     * @param out is not cleared, results are appended
+     */
+    @Override
+    public void query(float minX, float minY, float maxX, float maxY, Array<Collidable> out) {
+        int x0 = MathUtils.floor((minX - maxRadius) * invCellSize);
+        int y0 = MathUtils.floor((minY - maxRadius) * invCellSize);
+        int x1 = MathUtils.floor((maxX + maxRadius) * invCellSize);
+        int y1 = MathUtils.floor((maxY + maxRadius) * invCellSize);
+
+        for (int ix = x0; ix <= x1; ++ix) {
+            for (int iy = y0; iy <= y1; ++iy) {
+                Array<BroadPhaseProxy> cell = cells.get(key(ix, iy));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size; ++i) {
+                    out.add(cell.get(i).collidable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Overlapping pairs can only be in the same or adjacent cells since cells are as wide
+     * as the biggest circle.
+     * @param out
+     */
+    @Override
+    public void getCandidatePairs(Array<Collidable> out) {
+        for (LongMap.Entry<Array<BroadPhaseProxy>> e : cells.entries()) {
+            Array<BroadPhaseProxy> cell = e.value;
+            if (cell.size == 0) {
+                continue;
+            }
+            int ix = (int) (e.key >> 32);
+            int iy = (int) e.key;
+
+            for (int nx = ix - 1; nx <= ix + 1; ++nx) {
+                for (int ny = iy - 1; ny <= iy + 1; ++ny) {
+                    Array<BroadPhaseProxy> other = (nx == ix && ny == iy) ? cell : cells.get(key(nx, ny));
+                    if (other == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; ++i) {
+                        BroadPhaseProxy a = cell.get(i);
+                        for (int j = 0; j < other.size; ++j) {
+                            BroadPhaseProxy b = other.get(j);
+                            if (a.id < b.id && a.overlaps(b)) {
+                                out.add(a.collidable);
+                                out.add(b.collidable);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks the cells under the segment in order, looking one ring of cells (or more for fat casts)
+     * to either side, so the cost is close to the number of cells crossed.
+     */
+    @Override
+    public float raycast(float x0, float y0, float x1, float y1, float radius, float maxFraction, RayCallback callback) {
+        if (proxies.size == 0) {
+            return maxFraction;
+        }
+
+        // a circle binned further out than this from the cell can't reach the cast
+        int reach = MathUtils.ceil((radius + maxRadius) * invCellSize);
+        ++castStamp;
+
+        ray.init(x0 * invCellSize, y0 * invCellSize, x1 * invCellSize, y1 * invCellSize);
+        while (ray.next() && ray.tEntry <= maxFraction) {
+            for (int ix = ray.cx - reach; ix <= ray.cx + reach; ++ix) {
+                for (int iy = ray.cy - reach; iy <= ray.cy + reach; ++iy) {
+                    Array<BroadPhaseProxy> cell = cells.get(key(ix, iy));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; ++i) {
+                        BroadPhaseProxy proxy = cell.get(i);
+                        // neighbouring cells share rings, only report each proxy once
+                        if (proxy.castStamp != castStamp) {
+                            proxy.castStamp = castStamp;
+                            maxFraction = callback.reportCandidate(proxy.collidable);
+                        }
+                    }
+                }
+            }
+        }
+        return maxFraction;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public float getMaxRadius() {
+        return maxRadius;
+    }
+
+    @Override
+    public int size() {
+        return proxies.size;
+    }
+
+    @Override
+    public void clear() {
+        cells.clear();
+        proxies.clear();
+        maxRadius = 0;
+        nextId = 0;
+        cellSize = SETTINGS.COLLISION_MIN_CELL_SIZE;
+        invCellSize = 1f / cellSize;
+    }
+
+    private void rebuild() {
+        for (Array<BroadPhaseProxy> cell : cells.values()) {
+            cell.clear();
+        }
+        for (BroadPhaseProxy proxy : proxies.values()) {
+            proxy.cellKey = keyOf(proxy.x, proxy.y);
+            getOrCreateCell(proxy.cellKey).add(proxy);
+        }
+    }
+
+    private Array<BroadPhaseProxy> getOrCreateCell(long key) {
+        Array<BroadPhaseProxy> cell = cells.get(key);
+        if (cell == null) {
+            cell = new Array<BroadPhaseProxy>(false, 8);
+            cells.put(key, cell);
+        }
+        return cell;
+    }
+
+    private long keyOf(float x, float y) {
+        return key(MathUtils.floor(x * invCellSize), MathUtils.floor(y * invCellSize));
+    }
+
+    private static long key(int ix, int iy) {
+        return ((long) ix << 32) | (iy & 0xffffffffL);
+    }
+}
@@ -0,0 +1,170 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.singaporetech.eod.SETTINGS;
+
+/**
+ * Immutable index over the colliders that never move (blocks, house...).
+ * - baked once into a grid stored as flat arrays sorted by cell (CSR layout), so
+ *   each cell's circles sit next to each other in memory
+ * - rebake by creating a new one when the static set changes, e.g., loading a map
+ * - only the colliders are immutable, casts keep a little scratch state so use from one thread
+ */
+public final class StaticColliderIndex {
+    public static final StaticColliderIndex EMPTY = bake(new Array<Collidable>());
+
+    private final float originX, originY;
+    private final float cellSize, invCellSize;
+    private final float maxRadius;
+    private final int cols, rows;
+
+    // cell i holds entries [cellStart[i], cellStart[i+1])
+    private final int[] cellStart;
+    private final float[] xs, ys, radii;
+    private final Collidable[] collidables;
+
+    // cast scratch, marks cells already scanned by the current cast
+    private final int[] cellStamp;
+    private int castStamp = 0;
+    private final GridRay ray = new GridRay();
+
+    private StaticColliderIndex(float originX, float originY, float cellSize, float maxRadius, int cols, int rows,
+                                int[] cellStart, float[] xs, float[] ys, float[] radii, Collidable[] collidables) {
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.invCellSize = 1f / cellSize;
+        this.maxRadius = maxRadius;
+        this.cols = cols;
+        this.rows = rows;
+        this.cellStart = cellStart;
+        this.xs = xs;
+        this.ys = ys;
+        this.radii = radii;
+        this.collidables = collidables;
+        this.cellStamp = new int[cols * rows];
+    }
+
+    public static StaticColliderIndex bake(Array<Collidable> statics) {
+        int n = statics.size;
+
+        // bounds and cell size
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        float maxRadius = 0;
+        for (int i = 0; i < n; ++i) {
+            Collidable c = statics.get(i);
+            Vector2 pos = c.getBoundingCirclePos();
+            minX = Math.min(minX, pos.x);
+            minY = Math.min(minY, pos.y);
+            maxX = Math.max(maxX, pos.x);
+            maxY = Math.max(maxY, pos.y);
+            maxRadius = Math.max(maxRadius, c.getBoundingCircleRadius());
+        }
+        if (n == 0) {
+            minX = minY = maxX = maxY = 0;
+        }
+        float cellSize = Math.max(2 * maxRadius, SETTINGS.COLLISION_MIN_CELL_SIZE);
+        int cols = (int) ((maxX - minX) / cellSize) + 1;
+        int rows = (int) ((maxY - minY) / cellSize) + 1;
+
+        // counting sort by cell
+        int[] cellOf = new int[n];
+        int[] cellStart = new int[cols * rows + 1];
+        for (int i = 0; i < n; ++i) {
+            Vector2 pos = statics.get(i).getBoundingCirclePos();
+            int cx = Math.min((int) ((pos.x - minX) / cellSize), cols - 1);
+            int cy = Math.min((int) ((pos.y - minY) / cellSize), rows - 1);
+            cellOf[i] = cy * cols + cx;
+            ++cellStart[cellOf[i] + 1];
+        }
+        for (int i = 0; i < cols * rows; ++i) {
+            cellStart[i + 1] += cellStart[i];
+        }
+
+        int[] fill = new int[cols * rows];
+        float[] xs = new float[n];
+        float[] ys = new float[n];
+        float[] radii = new float[n];
+        Collidable[] collidables = new Collidable[n];
+        for (int i = 0; i < n; ++i) {
+            Collidable c = statics.get(i);
+            int slot = cellStart[cellOf[i]] + fill[cellOf[i]]++;
+            Vector2 pos = c.getBoundingCirclePos();
+            xs[slot] = pos.x;
+            ys[slot] = pos.y;
+            radii[slot] = c.getBoundingCircleRadius();
+            collidables[slot] = c;
+        }
+
+        return new StaticColliderIndex(minX, minY, cellSize, maxRadius, cols, rows, cellStart, xs, ys, radii, collidables);
+    }
+
+    /**
+     * Append every static collidable whose bounding circle overlaps the given box.
+     * @param out is not cleared, results are appended
+     */
+    public void query(float minX, float minY, float maxX, float maxY, Array<Collidable> out) {
+        if (collidables.length == 0) {
+            return;
+        }
+
+        int x0 = Math.max(MathUtils.floor((minX - maxRadius - originX) * invCellSize), 0);
+        int y0 = Math.max(MathUtils.floor((minY - maxRadius - originY) * invCellSize), 0);
+        int x1 = Math.min(MathUtils.floor((maxX + maxRadius - originX) * invCellSize), cols - 1);
+        int y1 = Math.min(MathUtils.floor((maxY + maxRadius - originY) * invCellSize), rows - 1);
+
+        for (int cy = y0; cy <= y1; ++cy) {
+            for (int cx = x0; cx <= x1; ++cx) {
+                int cell = cy * cols + cx;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; ++i) {
+                    float r = radii[i];
+                    if (xs[i] + r >= minX && xs[i] - r <= maxX && ys[i] + r >= minY && ys[i] - r <= maxY) {
+                        out.add(collidables[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Walk the cells under the segment in order (DDA) with the same callback contract as
+     * BroadPhase.raycast().
+     * @return the last fraction returned by the callback, or maxFraction
+     */
+    public float raycast(float x0, float y0, float x1, float y1, float radius, float maxFraction,
+                         BroadPhase.RayCallback callback) {
+        if (collidables.length == 0) {
+            return maxFraction;
+        }
+
+        int reach = MathUtils.ceil((radius + maxRadius) * invCellSize);
+        ++castStamp;
+
+        ray.init((x0 - originX) * invCellSize, (y0 - originY) * invCellSize,
+                (x1 - originX) * invCellSize, (y1 - originY) * invCellSize);
+        while (ray.next() && ray.tEntry <= maxFraction) {
+            int cy0 = Math.max(ray.cy - reach, 0), cy1 = Math.min(ray.cy + reach, rows - 1);
+            int cx0 = Math.max(ray.cx - reach, 0), cx1 = Math.min(ray.cx + reach, cols - 1);
+            for (int cy = cy0; cy <= cy1; ++cy) {
+                for (int cx = cx0; cx <= cx1; ++cx) {
+                    int cell = cy * cols + cx;
+                    if (cellStamp[cell] == castStamp) {
+                        continue;
+                    }
+                    cellStamp[cell] = castStamp;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; ++i) {
+                        maxFraction = callback.reportCandidate(collidables[i]);
+                    }
+                }
+            }
+        }
+        return maxFraction;
+    }
+
+    public int size() {
+        return collidables.length;
+    }
+}
@@ -0,0 +1,161 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+
+/**
+ * 1-axis sweep-and-prune broadphase.
+ * - proxies are kept sorted by the left edge of their bounding box on x
+ * - things only move a little every frame, so re-sorting with insertion sort is close to O(n)
+ */
+public class SweepAndPrune implements BroadPhase {
+    private static final String TAG = "SweepAndPrune";
+
+    private final Array<BroadPhaseProxy> sorted = new Array<BroadPhaseProxy>(true, 64, BroadPhaseProxy.class);
+    private final IdentityMap<Collidable, BroadPhaseProxy> proxies = new IdentityMap<Collidable, BroadPhaseProxy>();
+    private float maxRadius = 0;
+    private boolean isDirty = false;
+    private int nextId = 0;
+
+    @Override
+    public void insert(Collidable c) {
+        if (proxies.containsKey(c)) {
+            return;
+        }
+        BroadPhaseProxy proxy = new BroadPhaseProxy(c, nextId++);
+        proxies.put(c, proxy);
+        sorted.add(proxy);
+        maxRadius = Math.max(maxRadius, proxy.radius);
+        isDirty = true;
+    }
+
+    @Override
+    public void remove(Collidable c) {
+        BroadPhaseProxy proxy = proxies.remove(c);
+        if (proxy != null) {
+            // keeps order so no need to re-sort
+            sorted.removeValue(proxy, true);
+        }
+    }
+
+    @Override
+    public void update(Collidable c) {
+        BroadPhaseProxy proxy = proxies.get(c);
+        if (proxy != null) {
+            proxy.refresh();
+            isDirty = true;
+        }
+    }
+
+    @Override
+    public void query(float minX, float minY, float maxX, float maxY, Array<Collidable> out) {
+        sort();
+
+        // nothing starting further left than this can reach minX
+        int i = lowerBound(minX - 2 * maxRadius);
+        for (; i < sorted.size; ++i) {
+            BroadPhaseProxy proxy = sorted.get(i);
+            if (proxy.x - proxy.radius > maxX) {
+                break;
+            }
+            if (proxy.overlaps(minX, minY, maxX, maxY)) {
+                out.add(proxy.collidable);
+            }
+        }
+    }
+
+    @Override
+    public void getCandidatePairs(Array<Collidable> out) {
+        sort();
+
+        for (int i = 0; i < sorted.size; ++i) {
+            BroadPhaseProxy a = sorted.get(i);
+            float maxX = a.x + a.radius;
+            for (int j = i + 1; j < sorted.size; ++j) {
+                BroadPhaseProxy b = sorted.get(j);
+                if (b.x - b.radius > maxX) {
+                    break;
+                }
+                if (a.overlaps(b)) {
+                    out.add(a.collidable);
+                    out.add(b.collidable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Only sorted on x, so this just reports everything under the cast's bounding box.
+     */
+    @Override
+    public float raycast(float x0, float y0, float x1, float y1, float radius, float maxFraction, RayCallback callback) {
+        sort();
+
+        float minX = Math.min(x0, x1) - radius, maxX = Math.max(x0, x1) + radius;
+        float minY = Math.min(y0, y1) - radius, maxY = Math.max(y0, y1) + radius;
+        int i = lowerBound(minX - 2 * maxRadius);
+        for (; i < sorted.size; ++i) {
+            BroadPhaseProxy proxy = sorted.get(i);
+            if (proxy.x - proxy.radius > maxX) {
+                break;
+            }
+            if (proxy.overlaps(minX, minY, maxX, maxY)) {
+                maxFraction = callback.reportCandidate(proxy.collidable);
+            }
+        }
+        return maxFraction;
+    }
+
+    @Override
+    public int size() {
+        return proxies.size;
+    }
+
+    @Override
+    public void clear() {
+        sorted.clear();
+        proxies.clear();
+        maxRadius = 0;
+        isDirty = false;
+        nextId = 0;
+    }
+
+    /**
+     * Insertion sort on the left edge.
+     */
+    private void sort() {
+        if (!isDirty) {
+            return;
+        }
+        BroadPhaseProxy[] items = sorted.items;
+        for (int i = 1; i < sorted.size; ++i) {
+            BroadPhaseProxy p = items[i];
+            float key = p.x - p.radius;
+            int j = i - 1;
+            while (j >= 0 && items[j].x - items[j].radius > key) {
+                items[j + 1] = items[j];
+                --j;
+            }
+            items[j + 1] = p;
+        }
+        isDirty = false;
+    }
+
+    /**
+     * First index whose left edge is >= minX.
+     */
+    private int lowerBound(float minX) {
+        int lo = 0, hi = sorted.size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            BroadPhaseProxy p = sorted.get(mid);
+            if (p.x - p.radius < minX) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
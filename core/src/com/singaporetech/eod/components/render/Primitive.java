@@ -3,6 +3,7 @@ package com.singaporetech.eod.components.render;
 import com.badlogic.gdx.math.Rectangle;
 import com.singaporetech.eod.GameObject;
 import com.singaporetech.eod.RenderEngine;
+import com.singaporetech.eod.SlotMap;
 import com.singaporetech.eod.components.Component;
 
 import com.singaporetech.eod.components.Transform;
@@ -13,6 +14,7 @@ import com.singaporetech.eod.components.Transform;
 
 public abstract class Primitive extends Component implements RenderableDebug {
     protected Transform transform;
+    protected long debugHandle = SlotMap.NONE;
 
     public Primitive(String name) {
         super(name);
@@ -26,9 +28,25 @@ public abstract class Primitive extends Component implements RenderableDebug {
     public void init(GameObject owner) {
         super.init(owner);
 
-        transform = (Transform) owner.getComponent("Transform");
+        transform = owner.getComponent(Transform.class);
 
-        RenderEngine.i().addRenderableDebug(this);
+        debugHandle = RenderEngine.i().addRenderableDebug(this);
+    }
+
+    @Override
+    public void release() {
+        super.release();
+
+        RenderEngine.i().removeRenderableDebug(debugHandle);
+        debugHandle = SlotMap.NONE;
+    }
+
+    @Override
+    public void finalize() {
+        super.finalize();
+
+        RenderEngine.i().removeRenderableDebug(debugHandle);
+        debugHandle = SlotMap.NONE;
     }
 
     @Override
@@ -18,6 +18,13 @@ public class PrimitiveHealth extends Primitive {
         super("PrimitiveHealth");
     }
 
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        width = maxWidth;
+    }
+
     public void scaleWidth(float scale) {
         width = scale * maxWidth;
         if (width < 0) {
@@ -33,7 +40,8 @@ public class PrimitiveHealth extends Primitive {
     public void draw() {
         RenderEngine.i().getDebugRenderer().begin(ShapeRenderer.ShapeType.Filled);
         RenderEngine.i().getDebugRenderer().setColor(1,0,0,0);
-        RenderEngine.i().getDebugRenderer().rect(transform.getX()+ SETTINGS.HEALTHBAR_OFFSET_X, transform.getY()+SETTINGS.HEALTHBAR_OFFSET_Y, width, height);
+        float alpha = RenderEngine.i().getInterpolationAlpha();
+        RenderEngine.i().getDebugRenderer().rect(transform.getLerpX(alpha)+ SETTINGS.HEALTHBAR_OFFSET_X, transform.getLerpY(alpha)+SETTINGS.HEALTHBAR_OFFSET_Y, width, height);
         RenderEngine.i().getDebugRenderer().end();
     }
 }
@@ -7,6 +7,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.singaporetech.eod.GameObject;
 import com.singaporetech.eod.RenderEngine;
 import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.SlotMap;
 import com.singaporetech.eod.components.Component;
 import com.singaporetech.eod.components.Transform;
 
@@ -21,12 +22,26 @@ public class Sprite extends Component implements Renderable {
 
     protected float alpha = 1;
     protected float scale = 1;
+    protected float startAlpha = 1;
+    protected long renderHandle = SlotMap.NONE;
+
+    // false when the texture is shared, e.g., by a Prefab, which then disposes it
+    protected boolean isTextureOwned = true;
 
     public Sprite(String name, String spritePath, int width, int height) {
+        this(name, new Texture(spritePath), width, height);
+        isTextureOwned = true;
+    }
+
+    /**
+     * Draw a texture owned by someone else, it isn't disposed in finalize().
+     */
+    public Sprite(String name, Texture texture, int width, int height) {
         super(name);
+        isTextureOwned = false;
 
         // init sprite
-        sprite = new com.badlogic.gdx.graphics.g2d.Sprite(new Texture(spritePath));
+        sprite = new com.badlogic.gdx.graphics.g2d.Sprite(texture);
         sprite.setSize(width, height);
         //sprite.setScale(0.1f);
         sprite.setOriginCenter();
@@ -45,6 +60,10 @@ public class Sprite extends Component implements Renderable {
         this(spritePath, size, size);
     }
 
+    public Sprite(Texture texture, int size) {
+        this("Sprite", texture, size, size);
+    }
+
     public Sprite(String spritePath) {
         this(spritePath, SETTINGS.SPRITE_WIDTH, SETTINGS.SPRITE_HEIGHT);
     }
@@ -54,10 +73,10 @@ public class Sprite extends Component implements Renderable {
         super.init(owner);
 
         // setup links
-        transform = (Transform) owner.getComponent("Transform");
+        transform = owner.getComponent(Transform.class);
 
         // add to Render Engine
-        RenderEngine.i().addRenderable(this);
+        renderHandle = RenderEngine.i().addRenderable(this);
     }
 
     @Override
@@ -65,6 +84,14 @@ public class Sprite extends Component implements Renderable {
         return sprite.getBoundingRectangle();
     }
 
+    /**
+     * Resize, e.g., a prefab's block, before init() so the collider fits it.
+     */
+    public void setSize(float width, float height) {
+        sprite.setSize(width, height);
+        sprite.setOriginCenter();
+    }
+
     public void setPos(float x, float y) {
         sprite.setCenter(x, y);
     }
@@ -121,28 +148,54 @@ public class Sprite extends Component implements Renderable {
 
     @Override
     public void update(float dt) {
-        if (isActive) {
-            // follow transforms position
-            //sprite.setPosition(transform.getX(), transform.getY());
-            sprite.setRotation(transform.getRot());
-            sprite.setCenter(transform.getX(), transform.getY());
-        }
+        followTransform(1);
+    }
+
+    /**
+     * Follow the transform, blended between the last sim step and this one.
+     * - sprites placed only by request override this to do nothing
+     * @param alpha 0 is the last step, 1 is this one
+     */
+    protected void followTransform(float alpha) {
+        //sprite.setPosition(transform.getX(), transform.getY());
+        sprite.setRotation(transform.getLerpRot(alpha));
+        sprite.setCenter(transform.getLerpX(alpha), transform.getLerpY(alpha));
     }
 
     public void draw() {
         if (isActive) {
+            followTransform(RenderEngine.i().getInterpolationAlpha());
             sprite.draw(RenderEngine.i().getSpriteBatch());
         }
     }
 
+    @Override
+    public void release() {
+        super.release();
+
+        RenderEngine.i().removeRenderable(renderHandle);
+        renderHandle = SlotMap.NONE;
+    }
+
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        setAlpha(startAlpha);
+        setScale(1);
+    }
+
     @Override
     public void finalize() {
         super.finalize();
 
         // opengl textures are not auto deleted
-        sprite.getTexture().dispose();
+        if (isTextureOwned) {
+            sprite.getTexture().dispose();
+        }
 
         // remove from render engine
-        RenderEngine.i().removeRenderable(this);
+        RenderEngine.i().removeRenderable(renderHandle);
+        renderHandle = SlotMap.NONE;
     }
 }
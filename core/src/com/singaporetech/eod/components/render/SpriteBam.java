@@ -1,5 +1,6 @@
 package com.singaporetech.eod.components.render;
 
+import com.badlogic.gdx.graphics.Texture;
 import com.singaporetech.eod.SETTINGS;
 
 /**
@@ -10,6 +11,14 @@ public class SpriteBam extends Sprite implements Renderable {
     public SpriteBam(String spritePath) {
         super("SpriteBam", spritePath, SETTINGS.BAM_SIZE, SETTINGS.BAM_SIZE);
 
+        startAlpha = 0;
+        setAlpha(0);
+    }
+
+    public SpriteBam(Texture texture) {
+        super("SpriteBam", texture, SETTINGS.BAM_SIZE, SETTINGS.BAM_SIZE);
+
+        startAlpha = 0;
         setAlpha(0);
     }
 
@@ -18,7 +27,7 @@ public class SpriteBam extends Sprite implements Renderable {
     }
 
     @Override
-    public void update(float dt) {
+    protected void followTransform(float alpha) {
         // NO FRAME UPDATES, changes only by request
     }
 }
@@ -16,8 +16,8 @@ public class SpriteHealth extends Sprite implements Renderable {
     }
 
     @Override
-    public void update(float dt) {
-        sprite.setCenter(transform.getX(), transform.getY() + SETTINGS.HEALTHBAR_OFFSET_Y);
+    protected void followTransform(float alpha) {
+        sprite.setCenter(transform.getLerpX(alpha), transform.getLerpY(alpha) + SETTINGS.HEALTHBAR_OFFSET_Y);
     }
 
     public void scaleWidth(float scale) {
@@ -19,7 +19,7 @@ public class SpriteHealthPlayer extends SpriteHealth {
     }
 
     @Override
-    public void update(float dt) {
+    protected void followTransform(float alpha) {
         // no updates to pos, always fixed at top
     }
 }
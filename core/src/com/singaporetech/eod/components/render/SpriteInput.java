@@ -1,5 +1,6 @@
 package com.singaporetech.eod.components.render;
 
+import com.badlogic.gdx.graphics.Texture;
 import com.singaporetech.eod.SETTINGS;
 
 /**
@@ -11,8 +12,12 @@ public class SpriteInput extends Sprite implements RenderableDebug {
         super("SpriteInput", spritePath, SETTINGS.X_SIZE, SETTINGS.X_SIZE);
     }
 
+    public SpriteInput(Texture texture) {
+        super("SpriteInput", texture, SETTINGS.X_SIZE, SETTINGS.X_SIZE);
+    }
+
     @Override
-    public void update(float dt) {
+    protected void followTransform(float alpha) {
         // NO FRAME UPDATES, changes only by request
     }
 }
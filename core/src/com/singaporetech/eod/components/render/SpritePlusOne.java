@@ -1,5 +1,6 @@
 package com.singaporetech.eod.components.render;
 
+import com.badlogic.gdx.graphics.Texture;
 import com.singaporetech.eod.SETTINGS;
 
 /**
@@ -11,8 +12,12 @@ public class SpritePlusOne extends Sprite {
         super("SpritePlusOne", spritePath, SETTINGS.PLUSONE_SIZE, SETTINGS.PLUSONE_SIZE);
     }
 
+    public SpritePlusOne(Texture texture) {
+        super("SpritePlusOne", texture, SETTINGS.PLUSONE_SIZE, SETTINGS.PLUSONE_SIZE);
+    }
+
     @Override
-    public void update(float dt) {
+    protected void followTransform(float alpha) {
         // NO FRAME UPDATES, changes only by request
     }
 }
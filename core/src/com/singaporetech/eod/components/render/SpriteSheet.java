@@ -6,6 +6,7 @@ import com.badlogic.gdx.utils.Array;
 import com.singaporetech.eod.GameObject;
 import com.singaporetech.eod.RenderEngine;
 import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.SlotMap;
 import com.singaporetech.eod.components.Transform;
 
 /**
@@ -27,12 +28,26 @@ public class SpriteSheet extends com.singaporetech.eod.components.Component impl
     protected boolean isAnimated = false;
     protected boolean isRepeat = true;
     protected float animationElapsedTime = 0;
+    protected long renderHandle = SlotMap.NONE;
+
+    // false when the atlas is shared, e.g., by a Prefab, which then disposes it
+    protected boolean isAtlasOwned = true;
 
     public SpriteSheet(String name, String spritePath, int width, int height) {
+        this(name, new TextureAtlas(spritePath), width, height);
+        isAtlasOwned = true;
+    }
+
+    /**
+     * Animate an atlas owned by someone else, it isn't disposed in finalize().
+     * - the sprites are still this sheet's own, only the textures are shared
+     */
+    public SpriteSheet(String name, TextureAtlas atlas, int width, int height) {
         super(name);
+        isAtlasOwned = false;
 
         // init spritesheet
-        spriteSheet = new TextureAtlas(spritePath);
+        spriteSheet = atlas;
         sprites = spriteSheet.createSprites();
         currSprite = sprites.get(0);
         startFrame = endFrame = 0;
@@ -63,10 +78,10 @@ public class SpriteSheet extends com.singaporetech.eod.components.Component impl
         super.init(owner);
 
         // setup links
-        transform = (Transform) owner.getComponent("Transform");
+        transform = owner.getComponent(Transform.class);
 
         // add to render engine
-        RenderEngine.i().addRenderable(this);
+        renderHandle = RenderEngine.i().addRenderable(this);
     }
 
     @Override
@@ -129,6 +144,11 @@ public class SpriteSheet extends com.singaporetech.eod.components.Component impl
         }
     }
 
+    @Override
+    public boolean isSettled() {
+        return !isAnimated;
+    }
+
     public void onAnimation(Sequence seq, boolean isRepeat) {
         isAnimated = true;
         this.isRepeat = isRepeat;
@@ -147,19 +167,48 @@ public class SpriteSheet extends com.singaporetech.eod.components.Component impl
     }
 
     public void draw() {
+        // blend between the last sim step and this one
+        float alpha = RenderEngine.i().getInterpolationAlpha();
+        currSprite.setRotation(transform.getLerpRot(alpha));
+        currSprite.setCenter(transform.getLerpX(alpha), transform.getLerpY(alpha));
         currSprite.draw(RenderEngine.i().getSpriteBatch());
     }
 
+    @Override
+    public void release() {
+        super.release();
+
+        RenderEngine.i().removeRenderable(renderHandle);
+        renderHandle = SlotMap.NONE;
+    }
+
+    @Override
+    public void recycle() {
+        super.recycle();
+
+        sequence = null;
+        startFrame = endFrame = 0;
+        isAnimated = false;
+        isRepeat = true;
+        animationElapsedTime = 0;
+        currSpriteIndex = 0;
+        currSprite = sprites.get(0);
+        setAlpha(1);
+    }
+
     @Override
     public void finalize() {
         super.finalize();
 
         // opengl textures are not auto deleted
-        for (com.badlogic.gdx.graphics.g2d.Sprite sprite: sprites) {
-            sprite.getTexture().dispose();
+        if (isAtlasOwned) {
+            for (com.badlogic.gdx.graphics.g2d.Sprite sprite: sprites) {
+                sprite.getTexture().dispose();
+            }
         }
         
         // remove from render engine
-        RenderEngine.i().removeRenderable(this);
+        RenderEngine.i().removeRenderable(renderHandle);
+        renderHandle = SlotMap.NONE;
     }
 }
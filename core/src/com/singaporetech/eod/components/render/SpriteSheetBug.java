@@ -1,5 +1,6 @@
 package com.singaporetech.eod.components.render;
 
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.singaporetech.eod.SETTINGS;
 
 /**
@@ -12,6 +13,10 @@ public class SpriteSheetBug extends SpriteSheet {
         super("SpriteSheetBug", spritePath, SETTINGS.SPRITE_WIDTH, SETTINGS.SPRITE_HEIGHT);
     }
 
+    public SpriteSheetBug(TextureAtlas atlas) {
+        super("SpriteSheetBug", atlas, SETTINGS.SPRITE_WIDTH, SETTINGS.SPRITE_HEIGHT);
+    }
+
     /**
      * Graphics: 2D Graphics
      * 2. Setting keyframes. (see actual cockroach.png/.txt and TexturePacker app)
@@ -1,5 +1,6 @@
 package com.singaporetech.eod.components.render;
 
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.singaporetech.eod.SETTINGS;
 
 /**
@@ -11,6 +12,10 @@ public class SpriteSheetPlayer extends SpriteSheet {
         super("SpriteSheetPlayer", spritePath, SETTINGS.SPRITE_WIDTH, SETTINGS.SPRITE_HEIGHT);
     }
 
+    public SpriteSheetPlayer(TextureAtlas atlas) {
+        super("SpriteSheetPlayer", atlas, SETTINGS.SPRITE_WIDTH, SETTINGS.SPRITE_HEIGHT);
+    }
+
     public void setSequence(Sequence seq) {
         this.sequence = seq;
         switch(seq) {
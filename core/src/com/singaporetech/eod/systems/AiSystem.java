@@ -0,0 +1,208 @@
+package com.singaporetech.eod.systems;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.components.Component;
+import com.singaporetech.eod.components.Transform;
+import com.singaporetech.eod.components.ai.Brain;
+
+/**
+ * Updates the brains (fsms, behavior trees) at a rate that depends on how much they matter (AI LOD).
+ * - the focus (e.g., the player) and anything within SETTINGS.AI_LOD_NEAR of it, attacking or
+ *   dodging a block updates every step
+ * - within SETTINGS.AI_LOD_FAR updates at SETTINGS.AI_LOD_MID_HZ, further away or idle at
+ *   SETTINGS.AI_LOD_FAR_HZ
+ * - the ones due at a lower rate only get what is left of SETTINGS.AI_BUDGET_NANOS this step,
+ *   taken round robin so the ones left out go first next step
+ * - a brain not updated this step coasts on its last steering force so movement stays smooth
+ */
+public class AiSystem extends EntitySystem {
+    private static final String TAG = "AiSystem";
+
+    private GameObject focus;
+    private Transform focusTransform;
+
+    // brains and the time since each one's last update, kept side by side
+    private final Array<Brain> brains = new Array<Brain>(false, 64);
+    private float[] sinceUpdate = new float[64];
+    private float[] periods = new float[64];
+    private boolean[] isUpdated = new boolean[64];
+    private int cursor = 0;
+
+    // for profiling, updates done and skipped on the last step
+    private int updated = 0;
+    private int coasted = 0;
+
+    public AiSystem() {
+        super(Family.all(Brain.class));
+    }
+
+    /**
+     * What distances are measured from, always updated at full rate.
+     */
+    public void setFocus(GameObject focus) {
+        this.focus = focus;
+        focusTransform = focus == null ? null : focus.getComponent(Transform.class);
+    }
+
+    @Override
+    public void entityAdded(GameObject entity) {
+        for (Component c : entity.getComponents()) {
+            if (c instanceof Brain && c.isActive()) {
+                add((Brain) c);
+            }
+        }
+    }
+
+    @Override
+    public void entityRemoved(GameObject entity) {
+        for (Component c : entity.getComponents()) {
+            if (c instanceof Brain) {
+                remove((Brain) c);
+            }
+        }
+    }
+
+    @Override
+    public void componentActivityChanged(Component c) {
+        if (!(c instanceof Brain)) {
+            return;
+        }
+        if (c.isActive()) {
+            if (!brains.contains((Brain) c, true)) {
+                add((Brain) c);
+            }
+        }
+        else {
+            remove((Brain) c);
+        }
+    }
+
+    @Override
+    public int getWorkSize() {
+        return brains.size;
+    }
+
+    @Override
+    public void update(float dt, int from, int to) {
+        long start = TimeUtils.nanoTime();
+        updated = coasted = 0;
+        int n = brains.size;
+
+        // full rate ones first, they're never deferred
+        for (int i = 0; i < n; ++i) {
+            sinceUpdate[i] += dt;
+            periods[i] = getPeriod(brains.get(i));
+            isUpdated[i] = periods[i] <= 0;
+            if (isUpdated[i]) {
+                think(i);
+            }
+        }
+
+        // then whoever is due, from where the budget ran out last step
+        if (cursor >= n) {
+            cursor = 0;
+        }
+        // - at least one a step even over budget, so nobody waits forever
+        int leftOut = -1;
+        boolean isDeferredDone = false;
+        for (int k = 0; k < n; ++k) {
+            int i = (cursor + k) % n;
+            if (isUpdated[i]) {
+                continue;
+            }
+            if (sinceUpdate[i] >= periods[i]) {
+                if (!isDeferredDone || TimeUtils.nanoTime() - start < SETTINGS.AI_BUDGET_NANOS) {
+                    think(i);
+                    isDeferredDone = true;
+                    continue;
+                }
+                if (leftOut < 0) {
+                    leftOut = i;
+                }
+            }
+            brains.get(i).coast(dt);
+            ++coasted;
+        }
+        if (leftOut >= 0) {
+            cursor = leftOut;
+        }
+    }
+
+    public int getUpdatedCount() {
+        return updated;
+    }
+
+    public int getCoastedCount() {
+        return coasted;
+    }
+
+    @Override
+    protected void processEntity(GameObject entity, float dt) {
+        // brains are updated straight from the flat array instead
+    }
+
+    private void think(int i) {
+        brains.get(i).update(sinceUpdate[i]);
+        sinceUpdate[i] = 0;
+        ++updated;
+    }
+
+    /**
+     * @return secs between updates, 0 for every step
+     */
+    private float getPeriod(Brain brain) {
+        GameObject owner = brain.getOwner();
+        if (focusTransform == null || owner == focus) {
+            return 0;
+        }
+
+        switch (brain.getCurrState()) {
+            case ATTACK:
+            case COLLISION_RESPONSE:
+            case DESTRUCT:
+                return 0;
+            case IDLE:
+                return 1f / SETTINGS.AI_LOD_FAR_HZ;
+            default:
+                break;
+        }
+
+        Transform transform = owner.getComponent(Transform.class);
+        float dist2 = transform.getPos().dst2(focusTransform.getPos());
+        if (dist2 <= SETTINGS.AI_LOD_NEAR * SETTINGS.AI_LOD_NEAR) {
+            return 0;
+        }
+        if (dist2 <= SETTINGS.AI_LOD_FAR * SETTINGS.AI_LOD_FAR) {
+            return 1f / SETTINGS.AI_LOD_MID_HZ;
+        }
+        return 1f / SETTINGS.AI_LOD_FAR_HZ;
+    }
+
+    private void add(Brain brain) {
+        if (brains.size == sinceUpdate.length) {
+            int capacity = sinceUpdate.length * 2;
+            float[] grown = new float[capacity];
+            System.arraycopy(sinceUpdate, 0, grown, 0, brains.size);
+            sinceUpdate = grown;
+            periods = new float[capacity];
+            isUpdated = new boolean[capacity];
+        }
+        sinceUpdate[brains.size] = 0;
+        brains.add(brain);
+    }
+
+    private void remove(Brain brain) {
+        int i = brains.indexOf(brain, true);
+        if (i < 0) {
+            return;
+        }
+
+        // same swap as the unordered array
+        int last = brains.size - 1;
+        sinceUpdate[i] = sinceUpdate[last];
+        brains.removeIndex(i);
+    }
+}
@@ -0,0 +1,71 @@
+package com.singaporetech.eod.systems;
+
+import com.badlogic.gdx.utils.Array;
+import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.components.Component;
+
+/**
+ * Runs update() on every component of one type across all entities.
+ * - keeps its own flat array of the components so the loop doesn't go through the entities
+ * - catches subclasses too, and several of them on one entity, e.g., all the Sprites
+ * - disabled components are left out until enabled again
+ */
+public class ComponentUpdateSystem<T extends Component> extends EntitySystem {
+    private final Class<T> type;
+    protected final Array<Component> components = new Array<Component>(false, 64);
+
+    public ComponentUpdateSystem(Class<T> type) {
+        super(Family.all(type));
+        this.type = type;
+    }
+
+    @Override
+    public void entityAdded(GameObject entity) {
+        for (Component c : entity.getComponents()) {
+            if (type.isInstance(c) && c.isActive()) {
+                components.add(c);
+            }
+        }
+    }
+
+    @Override
+    public void entityRemoved(GameObject entity) {
+        for (Component c : entity.getComponents()) {
+            if (type.isInstance(c)) {
+                components.removeValue(c, true);
+            }
+        }
+    }
+
+    @Override
+    public void componentActivityChanged(Component c) {
+        if (!type.isInstance(c)) {
+            return;
+        }
+        if (c.isActive()) {
+            if (!components.contains(c, true)) {
+                components.add(c);
+            }
+        }
+        else {
+            components.removeValue(c, true);
+        }
+    }
+
+    @Override
+    public int getWorkSize() {
+        return components.size;
+    }
+
+    @Override
+    public void update(float dt, int from, int to) {
+        for (int i = from; i < to; ++i) {
+            components.get(i).update(dt);
+        }
+    }
+
+    @Override
+    protected void processEntity(GameObject entity, float dt) {
+        // components are updated straight from the flat array instead
+    }
+}
@@ -0,0 +1,134 @@
+package com.singaporetech.eod.systems;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.components.Component;
+import com.singaporetech.eod.components.ComponentType;
+
+/**
+ * One kind of processing run across every entity in its family, one system at a time.
+ * - the SystemEngine keeps the family lists up to date as entities come and go
+ * - systems run in the order they were added to the SystemEngine
+ * - to run in parallel a system declares the component types it reads and writes, declare base
+ *   types (e.g., Sprite) since subclasses aren't matched; a system declaring nothing runs alone
+ * - a splittable system only touches each entity's own components, so its range can be
+ *   spread over threads, it must not add or remove entities
+ */
+public abstract class EntitySystem {
+    protected final Family family;
+    protected Array<GameObject> entities;
+    protected boolean isActive = true;
+
+    // declared access, ComponentType ids
+    protected final Bits reads = new Bits();
+    protected final Bits writes = new Bits();
+    protected boolean isSplittable = false;
+
+    public EntitySystem(Family family) {
+        this.family = family;
+    }
+
+    public Family getFamily() {
+        return family;
+    }
+
+    /**
+     * Called by the SystemEngine with the shared list of entities in the family.
+     * @param entities
+     */
+    public void addedToEngine(Array<GameObject> entities) {
+        this.entities = entities;
+    }
+
+    /**
+     * Called by the SystemEngine after a matching entity has joined the family list.
+     */
+    public void entityAdded(GameObject entity) {}
+
+    /**
+     * Called by the SystemEngine after a matching entity has left the family list.
+     */
+    public void entityRemoved(GameObject entity) {}
+
+    /**
+     * Called by the SystemEngine when a component of a member was enabled or disabled.
+     */
+    public void componentActivityChanged(Component c) {}
+
+    @SafeVarargs
+    public final EntitySystem reads(Class<? extends Component>... types) {
+        reads.or(ComponentType.getBits(types));
+        return this;
+    }
+
+    @SafeVarargs
+    public final EntitySystem writes(Class<? extends Component>... types) {
+        writes.or(ComponentType.getBits(types));
+        return this;
+    }
+
+    /**
+     * Declare that each item only touches its own entity's components.
+     * @return this
+     */
+    public EntitySystem split() {
+        isSplittable = true;
+        return this;
+    }
+
+    /**
+     * Declared nothing, so assume it can touch anything.
+     */
+    public boolean isExclusive() {
+        return reads.isEmpty() && writes.isEmpty();
+    }
+
+    /**
+     * Whether the two can't run at the same time, i.e., either writes what the other touches.
+     */
+    public boolean conflictsWith(EntitySystem other) {
+        return isExclusive() || other.isExclusive()
+                || writes.intersects(other.writes) || writes.intersects(other.reads) || reads.intersects(other.writes);
+    }
+
+    public boolean isSplittable() {
+        return isSplittable;
+    }
+
+    /**
+     * Number of items update(dt, from, to) ranges over.
+     */
+    public int getWorkSize() {
+        return entities.size;
+    }
+
+    public void update(float dt) {
+        update(dt, 0, getWorkSize());
+    }
+
+    /**
+     * Process items [from, to), may be called from a worker thread if the system is splittable.
+     */
+    public void update(float dt, int from, int to) {
+        for (int i = from; i < to; ++i) {
+            processEntity(entities.get(i), dt);
+        }
+    }
+
+    protected abstract void processEntity(GameObject entity, float dt);
+
+    /**
+     * Called on the main thread once every range of update() is done for the step, e.g., to
+     * apply what a split update could only flag on its own entity.
+     */
+    public void afterUpdate() {}
+
+    public boolean isActive() {
+        return isActive;
+    }
+
+    public void setActive(boolean isActive) {
+        this.isActive = isActive;
+    }
+}
@@ -0,0 +1,60 @@
+package com.singaporetech.eod.systems;
+
+import com.badlogic.gdx.utils.Bits;
+import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.components.Component;
+import com.singaporetech.eod.components.ComponentType;
+
+/**
+ * Set of component types an EntitySystem needs, matched against GameObject.getComponentBits().
+ * - families with the same types are equal, so systems asking for the same set share one entity list
+ */
+public class Family {
+    private final Bits all;
+    private final Bits exclude;
+
+    private Family(Bits all, Bits exclude) {
+        this.all = all;
+        this.exclude = exclude;
+    }
+
+    /**
+     * Entities that have all of these.
+     */
+    @SafeVarargs
+    public static Family all(Class<? extends Component>... types) {
+        return new Family(ComponentType.getBits(types), new Bits());
+    }
+
+    /**
+     * Same family minus entities that have any of these.
+     */
+    @SafeVarargs
+    public final Family exclude(Class<? extends Component>... types) {
+        Bits excluded = ComponentType.getBits(types);
+        excluded.or(exclude);
+        return new Family(all, excluded);
+    }
+
+    public boolean matches(GameObject go) {
+        Bits bits = go.getComponentBits();
+        return bits.containsAll(all) && !bits.intersects(exclude);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Family)) {
+            return false;
+        }
+        Family other = (Family) o;
+        return all.equals(other.all) && exclude.equals(other.exclude);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * all.hashCode() + exclude.hashCode();
+    }
+}
@@ -0,0 +1,24 @@
+package com.singaporetech.eod.systems;
+
+import com.singaporetech.eod.components.Health;
+
+/**
+ * Updates the Healths, split over the workers, then destroys the expired ones on the main thread.
+ * - Health.update() only counts down on its own component, setDestroyed() goes into the
+ *   DestructionQueue so it's left to afterUpdate(), in array order like a serial run
+ */
+public class HealthSystem extends ComponentUpdateSystem<Health> {
+    public HealthSystem() {
+        super(Health.class);
+    }
+
+    @Override
+    public void afterUpdate() {
+        for (int i = 0; i < components.size; ++i) {
+            Health health = (Health) components.get(i);
+            if (health.isGcDue()) {
+                health.getOwner().setDestroyed();
+            }
+        }
+    }
+}
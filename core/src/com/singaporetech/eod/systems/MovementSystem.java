@@ -0,0 +1,41 @@
+package com.singaporetech.eod.systems;
+
+import com.singaporetech.eod.CollisionEngine;
+import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.components.MotionStore;
+import com.singaporetech.eod.components.Movement;
+import com.singaporetech.eod.components.Transform;
+import com.singaporetech.eod.components.collision.Collider;
+
+/**
+ * Integrates all the movers in one pass over the MotionStore columns.
+ * - slots are independent so the pass can be split, unless CCD is on since that queries the
+ *   CollisionEngine which isn't thread safe
+ */
+public class MovementSystem extends EntitySystem {
+    public MovementSystem() {
+        super(Family.all(Transform.class, Movement.class));
+        reads(Movement.class);
+        writes(Transform.class, Collider.class);
+    }
+
+    @Override
+    public boolean isSplittable() {
+        return CollisionEngine.i().getCcdMode() == CollisionEngine.CcdMode.OFF;
+    }
+
+    @Override
+    public int getWorkSize() {
+        return MotionStore.i().size();
+    }
+
+    @Override
+    public void update(float dt, int from, int to) {
+        MotionStore.i().integrate(dt, from, to);
+    }
+
+    @Override
+    protected void processEntity(GameObject entity, float dt) {
+        // state is already packed in the store, see update()
+    }
+}
@@ -0,0 +1,39 @@
+package com.singaporetech.eod.systems;
+
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.components.Transform;
+
+/**
+ * Puts entities to sleep once they have been settled for SETTINGS.SLEEP_DELAY.
+ * - settled means every component says so, e.g., not moving, fsm idle, no animation playing
+ * - asleep they drop out of every system, including the collider updates, until something
+ *   wakes them: a hit, a collision with a mover, or input
+ * - runs last so it sees the state the frame ended with
+ */
+public class SleepSystem extends EntitySystem {
+    private final ObjectFloatMap<GameObject> settledTimes = new ObjectFloatMap<GameObject>();
+
+    public SleepSystem() {
+        super(Family.all(Transform.class));
+    }
+
+    @Override
+    public void entityRemoved(GameObject entity) {
+        settledTimes.remove(entity, 0);
+    }
+
+    @Override
+    protected void processEntity(GameObject entity, float dt) {
+        if (!entity.isSettled()) {
+            settledTimes.put(entity, 0);
+            return;
+        }
+
+        float settledTime = settledTimes.getAndIncrement(entity, 0, dt) + dt;
+        if (settledTime >= SETTINGS.SLEEP_DELAY) {
+            entity.sleep();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.singaporetech.eod.systems;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs systems on a fork-join pool using their declared reads/writes.
+ * - consecutive systems that don't conflict are grouped into one stage and run together,
+ *   systems that conflict keep their order so the result is the same as running them serially
+ * - splittable systems get their range cut into batches of at least minBatch items
+ * - the stage and batch tasks are built with the stages and reused, a step allocates nothing
+ * - a stage with one unsplit system just runs on the calling thread
+ * - afterUpdate() of every system in the stage runs on the calling thread once the stage is done
+ */
+public class SystemScheduler {
+    private static final String TAG = "SystemScheduler";
+
+    // batches a split system is cut into per worker, a few so a slow one can be stolen around
+    private static final int BATCHES_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final int minBatch;
+    private final int maxBatches;
+    private final Array<Array<EntitySystem>> stages = new Array<Array<EntitySystem>>();
+    private final Array<StageTask> stageTasks = new Array<StageTask>();
+
+    public SystemScheduler(int parallelism, int minBatch) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.minBatch = Math.max(1, minBatch);
+        this.maxBatches = Math.max(1, parallelism) * BATCHES_PER_WORKER;
+    }
+
+    /**
+     * Group the systems into stages, call again whenever the systems change.
+     * @param systems in the order they'd run serially
+     */
+    public void build(Array<EntitySystem> systems) {
+        stages.clear();
+        Array<EntitySystem> stage = null;
+        for (int i = 0; i < systems.size; ++i) {
+            EntitySystem system = systems.get(i);
+            if (stage == null || conflictsWithAny(system, stage)) {
+                stage = new Array<EntitySystem>(false, 4);
+                stages.add(stage);
+            }
+            stage.add(system);
+        }
+
+        stageTasks.clear();
+        for (int i = 0; i < stages.size; ++i) {
+            stageTasks.add(new StageTask(stages.get(i)));
+        }
+    }
+
+    public int getStageCount() {
+        return stages.size;
+    }
+
+    public Array<EntitySystem> getStage(int i) {
+        return stages.get(i);
+    }
+
+    /**
+     * Run every active system in the stage and wait for them all.
+     * @param i
+     * @param dt
+     */
+    public void runStage(int i, float dt) {
+        Array<EntitySystem> stage = stages.get(i);
+
+        // count what's worth handing to the pool
+        int activeCount = 0;
+        EntitySystem last = null;
+        for (int s = 0; s < stage.size; ++s) {
+            if (stage.get(s).isActive()) {
+                ++activeCount;
+                last = stage.get(s);
+            }
+        }
+        if (activeCount == 0) {
+            return;
+        }
+        if (activeCount == 1 && !isWorthSplitting(last)) {
+            last.update(dt);
+            last.afterUpdate();
+            return;
+        }
+
+        StageTask task = stageTasks.get(i);
+        task.prepare(dt);
+        task.reinitialize();
+        pool.invoke(task);
+
+        // back on the calling thread, in the systems' order
+        for (int s = 0; s < stage.size; ++s) {
+            if (stage.get(s).isActive()) {
+                stage.get(s).afterUpdate();
+            }
+        }
+    }
+
+    public void dispose() {
+        pool.shutdown();
+        stages.clear();
+        stageTasks.clear();
+    }
+
+    private boolean isWorthSplitting(EntitySystem system) {
+        return system.isSplittable() && system.getWorkSize() > minBatch;
+    }
+
+    private static boolean conflictsWithAny(EntitySystem system, Array<EntitySystem> stage) {
+        for (int i = 0; i < stage.size; ++i) {
+            if (system.conflictsWith(stage.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * All the systems of one stage side by side, built once per stage and reused every step.
+     * - each active system gets one batch, or up to maxBatches of at least minBatch items if
+     *   it's worth splitting, the batches are preallocated and reinitialize()d each run
+     */
+    private class StageTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Array<EntitySystem> systems;
+        private final RangeTask[] batches;
+        private int count = 0;
+
+        StageTask(Array<EntitySystem> systems) {
+            this.systems = systems;
+            batches = new RangeTask[systems.size * maxBatches];
+            for (int i = 0; i < batches.length; ++i) {
+                batches[i] = new RangeTask();
+            }
+        }
+
+        /**
+         * Cut this step's ranges, call on the calling thread before invoking.
+         */
+        void prepare(float dt) {
+            count = 0;
+            for (int s = 0; s < systems.size; ++s) {
+                EntitySystem system = systems.get(s);
+                if (!system.isActive()) {
+                    continue;
+                }
+                int size = system.getWorkSize();
+                int n = isWorthSplitting(system) ? Math.min(maxBatches, (size + minBatch - 1) / minBatch) : 1;
+                for (int b = 0; b < n; ++b) {
+                    RangeTask batch = batches[count++];
+                    batch.set(system, dt, (int) ((long) size * b / n), (int) ((long) size * (b + 1) / n));
+                    batch.reinitialize();
+                }
+            }
+        }
+
+        @Override
+        protected void compute() {
+            // fork the rest, do the first here, then join newest first
+            for (int i = 1; i < count; ++i) {
+                batches[i].fork();
+            }
+            if (count > 0) {
+                batches[0].compute();
+            }
+            for (int i = count - 1; i >= 1; --i) {
+                batches[i].join();
+            }
+        }
+    }
+
+    /**
+     * Items [from, to) of one system.
+     */
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private EntitySystem system;
+        private float dt;
+        private int from;
+        private int to;
+
+        void set(EntitySystem system, float dt, int from, int to) {
+            this.system = system;
+            this.dt = dt;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            system.update(dt, from, to);
+        }
+    }
+}
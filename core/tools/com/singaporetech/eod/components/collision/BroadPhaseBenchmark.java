@@ -0,0 +1,257 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.singaporetech.eod.CollisionEngine;
+import com.singaporetech.eod.GameObject;
+import com.singaporetech.eod.SETTINGS;
+
+/**
+ * Compares the broadphases on synthetic collidables so we can pick one per level with data.
+ * - run the main() on desktop, no libgdx backend needed
+ * - every simulated frame moves all the dynamic dots a little, refreshes them in the
+ *   broadphase, does one fan sized query per dot and then collects all candidate pairs
+ * - first cross-checks that every broadphase gives the same cast results, exits with 1 if not
+ */
+public class BroadPhaseBenchmark {
+    public enum Distribution {UNIFORM, CLUSTERED, CORRIDOR}
+
+    private static final int[] COUNTS = {250, 1000, 4000};
+    private static final int NUM_STATIC = 20;
+    private static final int WARMUP_FRAMES = 60;
+    private static final int FRAMES = 200;
+    private static final float DOT_RADIUS = SETTINGS.SPRITE_WIDTH / 2f;
+    private static final float BLOCK_RADIUS = SETTINGS.BLOCK_SIZE / 2f;
+    private static final float STEP = SETTINGS.SPEED_BUG / 60f;
+    private static final float QUERY_REACH = SETTINGS.SPEED_BUG * SETTINGS.COLLISION_FORWARD_LEN;
+
+    /**
+     * Bare collidable that is nothing but a circle.
+     */
+    static class Dot implements Collidable {
+        final Vector2 pos = new Vector2();
+        final float radius;
+        final boolean isStatic;
+
+        Dot(float x, float y, float radius, boolean isStatic) {
+            this.pos.set(x, y);
+            this.radius = radius;
+            this.isStatic = isStatic;
+        }
+
+        @Override
+        public boolean isStatic() {
+            return isStatic;
+        }
+
+        @Override
+        public boolean isCollidable() {
+            return true;
+        }
+
+        @Override
+        public int getCategory() {
+            return isStatic ? CollisionLayer.STATIC : CollisionLayer.ENEMY;
+        }
+
+        @Override
+        public int getMask() {
+            return CollisionLayer.STATIC;
+        }
+
+        @Override
+        public GameObject getOwner() {
+            return null;
+        }
+
+        @Override
+        public float getBoundingCircleRadius() {
+            return radius;
+        }
+
+        @Override
+        public Vector2 getBoundingCirclePos() {
+            return pos;
+        }
+
+        @Override
+        public Vector2 getCollisionNorm(Collidable other) {
+            return null;
+        }
+
+        @Override
+        public boolean collidedWithPos(Vector2 p) {
+            return pos.dst2(p) <= radius * radius;
+        }
+    }
+
+    /**
+     * Hit test against whatever a broadphase hands out along a cast.
+     */
+    static class CastCheck implements BroadPhase.RayCallback {
+        final Vector2 from = new Vector2(), to = new Vector2();
+        float radius;
+        int hits;
+
+        @Override
+        public float reportCandidate(Collidable c) {
+            float r = c.getBoundingCircleRadius() + radius;
+            if (Intersector.intersectSegmentCircle(from, to, c.getBoundingCirclePos(), r * r)) {
+                ++hits;
+            }
+            return 1;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (!crossCheck()) {
+            System.exit(1);
+        }
+
+        System.out.println("distribution, count, broadphase, ms/frame, candidates/frame, pairs/frame");
+        for (Distribution distribution : Distribution.values()) {
+            for (int count : COUNTS) {
+                for (BroadPhase.Type type : BroadPhase.Type.values()) {
+                    run(distribution, count, type);
+                }
+            }
+        }
+    }
+
+    /**
+     * Same casts against every broadphase, including one that only touches the part of a big
+     * body sticking out past the quadtree's root.
+     * @return true if they all agree
+     */
+    private static boolean crossCheck() {
+        // default root is centred on the viewport with the viewport height as half size
+        float rootX = SETTINGS.VIEWPORT_WIDTH / 2f, rootY = SETTINGS.VIEWPORT_HEIGHT / 2f;
+        float rootHalf = SETTINGS.VIEWPORT_HEIGHT;
+        float bigRadius = BLOCK_RADIUS * 4;
+
+        Array<Dot> dots = new Array<Dot>();
+        RandomXS128 random = new RandomXS128(7);
+        for (int i = 0; i < 200; ++i) {
+            dots.add(new Dot(random.nextFloat() * SETTINGS.VIEWPORT_WIDTH, random.nextFloat() * SETTINGS.VIEWPORT_HEIGHT, DOT_RADIUS, false));
+        }
+        // centre outside the root, overhangs its loose bounds to the right
+        Dot big = new Dot(rootX + 2 * rootHalf + bigRadius / 2, rootY, bigRadius, true);
+        dots.add(big);
+
+        Array<float[]> casts = new Array<float[]>();
+        // x0, y0, x1, y1, radius, the first only crosses the overhang
+        casts.add(new float[] {big.pos.x + bigRadius * 0.75f, rootY - bigRadius / 2, big.pos.x + bigRadius * 0.75f, rootY + bigRadius / 2, 0});
+        for (int i = 0; i < 50; ++i) {
+            casts.add(new float[] {
+                    random.nextFloat() * SETTINGS.VIEWPORT_WIDTH, random.nextFloat() * SETTINGS.VIEWPORT_HEIGHT,
+                    random.nextFloat() * SETTINGS.VIEWPORT_WIDTH, random.nextFloat() * SETTINGS.VIEWPORT_HEIGHT,
+                    i % 2 == 0 ? 0 : DOT_RADIUS});
+        }
+
+        BroadPhase.Type[] types = BroadPhase.Type.values();
+        int[][] hits = new int[types.length][casts.size];
+        CastCheck check = new CastCheck();
+        for (int t = 0; t < types.length; ++t) {
+            BroadPhase broadPhase = CollisionEngine.createBroadPhase(types[t]);
+            for (Dot dot : dots) {
+                broadPhase.insert(dot);
+            }
+            for (int i = 0; i < casts.size; ++i) {
+                float[] cast = casts.get(i);
+                check.from.set(cast[0], cast[1]);
+                check.to.set(cast[2], cast[3]);
+                check.radius = cast[4];
+                check.hits = 0;
+                broadPhase.raycast(cast[0], cast[1], cast[2], cast[3], cast[4], 1, check);
+                hits[t][i] = check.hits;
+            }
+        }
+
+        boolean isSame = true;
+        for (int i = 0; i < casts.size; ++i) {
+            for (int t = 1; t < types.length; ++t) {
+                if (hits[t][i] != hits[0][i]) {
+                    System.out.println("cast " + i + ": " + types[0] + " hits " + hits[0][i] + ", " + types[t] + " hits " + hits[t][i]);
+                    isSame = false;
+                }
+            }
+        }
+        if (hits[0][0] != 1) {
+            System.out.println("cast 0: " + types[0] + " hits " + hits[0][0] + ", expected 1");
+            isSame = false;
+        }
+        return isSame;
+    }
+
+    private static void run(Distribution distribution, int count, BroadPhase.Type type) {
+        // same seed for every broadphase so they see the exact same world
+        RandomXS128 random = new RandomXS128(count * 31 + distribution.ordinal());
+        Array<Dot> dots = new Array<Dot>(count + NUM_STATIC);
+        for (int i = 0; i < NUM_STATIC; ++i) {
+            dots.add(new Dot(random.nextFloat() * SETTINGS.VIEWPORT_WIDTH, random.nextFloat() * SETTINGS.VIEWPORT_HEIGHT, BLOCK_RADIUS, true));
+        }
+        for (int i = 0; i < count; ++i) {
+            Dot dot = new Dot(0, 0, DOT_RADIUS, false);
+            place(dot.pos, distribution, random);
+            dots.add(dot);
+        }
+
+        BroadPhase broadPhase = CollisionEngine.createBroadPhase(type);
+        for (Dot dot : dots) {
+            broadPhase.insert(dot);
+        }
+
+        Array<Collidable> out = new Array<Collidable>(false, 1024);
+        long candidates = 0, pairs = 0, nanos = 0;
+        for (int frame = 0; frame < WARMUP_FRAMES + FRAMES; ++frame) {
+            long start = System.nanoTime();
+            int frameCandidates = 0;
+
+            for (int i = NUM_STATIC; i < dots.size; ++i) {
+                Dot dot = dots.get(i);
+                dot.pos.add(random.nextFloat() * 2 * STEP - STEP, random.nextFloat() * 2 * STEP - STEP);
+                broadPhase.update(dot);
+            }
+            for (int i = NUM_STATIC; i < dots.size; ++i) {
+                Vector2 p = dots.get(i).pos;
+                out.clear();
+                broadPhase.query(p.x - QUERY_REACH, p.y - QUERY_REACH, p.x + QUERY_REACH, p.y + QUERY_REACH, out);
+                frameCandidates += out.size;
+            }
+            out.clear();
+            broadPhase.getCandidatePairs(out);
+
+            if (frame >= WARMUP_FRAMES) {
+                nanos += System.nanoTime() - start;
+                candidates += frameCandidates;
+                pairs += out.size / 2;
+            }
+        }
+
+        System.out.println(distribution + ", " + count + ", " + type
+                + ", " + String.format("%.3f", nanos / 1e6 / FRAMES)
+                + ", " + candidates / FRAMES
+                + ", " + pairs / FRAMES);
+    }
+
+    private static void place(Vector2 pos, Distribution distribution, RandomXS128 random) {
+        switch (distribution) {
+            case CLUSTERED:
+                // gaussian blob around the player start
+                pos.set(SETTINGS.PLAYER_POS_X + (float) random.nextGaussian() * SETTINGS.SPRITE_WIDTH * 2,
+                        SETTINGS.PLAYER_POS_Y + (float) random.nextGaussian() * SETTINGS.SPRITE_WIDTH * 2);
+                break;
+            case CORRIDOR:
+                // long thin band up the middle of the screen
+                pos.set(SETTINGS.VIEWPORT_WIDTH / 2f + (random.nextFloat() * 2 - 1) * SETTINGS.SPRITE_WIDTH,
+                        random.nextFloat() * SETTINGS.VIEWPORT_HEIGHT * 4);
+                break;
+            case UNIFORM:
+            default:
+                pos.set(random.nextFloat() * SETTINGS.VIEWPORT_WIDTH * 4, random.nextFloat() * SETTINGS.VIEWPORT_HEIGHT * 4);
+                break;
+        }
+    }
+}
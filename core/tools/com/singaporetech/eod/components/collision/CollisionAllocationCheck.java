@@ -0,0 +1,83 @@
+package com.singaporetech.eod.components.collision;
+
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.singaporetech.eod.CollisionEngine;
+import com.singaporetech.eod.SETTINGS;
+import com.singaporetech.eod.components.Transform;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that the collision query path does not allocate once the JVM is warmed up.
+ * - run the main() on a desktop HotSpot JVM, exits with 1 if any query allocated
+ * - colliders are wired up by hand so no libgdx backend (textures etc.) is needed
+ */
+public class CollisionAllocationCheck {
+    private static final int NUM_BUGS = 500;
+    private static final int NUM_BLOCKS = 30;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 50;
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        RandomXS128 random = new RandomXS128(42);
+        for (int i = 0; i < NUM_BLOCKS; ++i) {
+            CollisionEngine.i().addCollidable(makeCollider(random, SETTINGS.BLOCK_SIZE / 2f, true, CollisionLayer.STATIC, CollisionLayer.NONE));
+        }
+        Array<Collider> bugs = new Array<Collider>();
+        for (int i = 0; i < NUM_BUGS; ++i) {
+            Collider bug = makeCollider(random, SETTINGS.SPRITE_WIDTH / 2f, false, CollisionLayer.ENEMY, CollisionLayer.STATIC);
+            bug.setCollisionVecLen(SETTINGS.SPEED_BUG * SETTINGS.COLLISION_FORWARD_LEN);
+            CollisionEngine.i().addCollidable(bug);
+            bugs.add(bug);
+        }
+        Vector2 pickPos = new Vector2();
+
+        // warm up so everything is compiled and every cell has been created
+        for (int round = 0; round < WARMUP_ROUNDS; ++round) {
+            queryAll(bugs, pickPos);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long overhead = threads.getThreadAllocatedBytes(threadId) - before;
+        before = threads.getThreadAllocatedBytes(threadId);
+        for (int round = 0; round < ROUNDS; ++round) {
+            queryAll(bugs, pickPos);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before - overhead;
+
+        int queries = ROUNDS * NUM_BUGS * 4;
+        System.out.println(queries + " queries allocated " + allocated + " bytes");
+        System.exit(allocated > 0 ? 1 : 0);
+    }
+
+    /**
+     * One frame's worth of collider updates and queries.
+     */
+    private static void queryAll(Array<Collider> bugs, Vector2 pickPos) {
+        for (int i = 0; i < bugs.size; ++i) {
+            Collider bug = bugs.get(i);
+            bug.transform.setRot(bug.transform.getRot() + 7);
+            bug.update(1 / 60f);
+
+            CollisionEngine.i().getCollisionNorm(bug);
+            CollisionEngine.i().getCollisionAvoidTarget(bug);
+            pickPos.set(bug.getBoundingCirclePos());
+            CollisionEngine.i().getObjectCollidedWithPos(pickPos, CollisionLayer.ENEMY);
+            CollisionEngine.i().isFreeOfCollisions(pickPos, CollisionLayer.STATIC);
+        }
+    }
+
+    private static Collider makeCollider(RandomXS128 random, float radius, boolean isStatic, int category, int mask) {
+        Collider collider = new Collider(true, isStatic, category, mask);
+        collider.transform = new Transform(random.nextInt(SETTINGS.VIEWPORT_WIDTH), random.nextInt(SETTINGS.VIEWPORT_HEIGHT), random.nextInt(360));
+        collider.boundingCircle = new Circle(collider.transform.getPos(), radius);
+        collider.boundingCirclePos.set(collider.boundingCircle.x, collider.boundingCircle.y);
+        return collider;
+    }
+}